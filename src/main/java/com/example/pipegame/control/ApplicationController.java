@@ -28,20 +28,23 @@ public class ApplicationController {
     }
 
     /**
-     * The function asks the user to select a graph type (either "Adjacency List" or "Adjacency
-     * Matrix") and returns an integer value representing the selected option.
+     * The function asks the user to select a graph type ("Adjacency List", "Adjacency Matrix" or
+     * "Primitive Grid") and returns an integer value representing the selected option.
      * 
      * @return The method is returning an integer value. The value returned depends on the selected
      * option in the choice dialog. If "Adjacency List" is selected, it returns 1. If "Adjacency
-     * Matrix" is selected, it returns 2. If neither option is selected, it returns 0.
+     * Matrix" is selected, it returns 2. If "Primitive Grid" is selected, it returns 3. If no option
+     * is selected, it returns 0.
      */
     private int askForGraphType() {
-        ArrayList<String> options = new ArrayList<>(List.of("Adjacency List", "Adjacency Matrix"));
+        ArrayList<String> options = new ArrayList<>(List.of("Adjacency List", "Adjacency Matrix", "Primitive Grid"));
         String selectedOption = ApplicationMain.showChoiceDialog("Confirmation", "Set graph type", "Select an option:", options);
         if ("Adjacency List".equals(selectedOption)) {
             return 1;
         } else if ("Adjacency Matrix".equals(selectedOption)) {
             return 2;
+        } else if ("Primitive Grid".equals(selectedOption)) {
+            return 3;
         }
         return 0;
     }
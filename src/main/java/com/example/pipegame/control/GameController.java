@@ -24,6 +24,9 @@ import java.util.*;
 
 public class GameController implements Initializable {
 
+    private static final Heuristic<Pipe> MANHATTAN = Heuristic.manhattan(Pipe::getRow, Pipe::getCol);
+    private static final int NO_PIPE = -1;
+
     @FXML
     private Label vText;
     @FXML
@@ -43,6 +46,12 @@ public class GameController implements Initializable {
     private boolean handleGridClickEnabled = true;
     private int currentImageIndex = 1;
     private boolean[][] blockedCells;
+    // the vertex of every cell of the board, null for the blocked ones, built by initializeGraph
+    private Vertex<Pipe>[][] cellVertices;
+    // the position in pipesOnScreen of the pipe placed on every cell, NO_PIPE for the empty ones
+    private int[][] pipeIndexes;
+    // the cells reached by the water of the source, updated on every click
+    private WaterFlow waterFlow;
     private Image source, drain;
     private Calendar startTime;
     private boolean isVertical;
@@ -71,7 +80,10 @@ public class GameController implements Initializable {
             graph = new GraphAdjacentyList<>();
         } else if (selectedGraphMode == 2) {
             graph = new GraphAdjacentyMatriz<>();
+        } else if (selectedGraphMode == 3) {
+            graph = new IntGraphAdapter<>(new IntGraph(board.getRowCount(), board.getColumnCount()), Pipe::getRow, Pipe::getCol);
         }
+        graph.enableConnectivityIndex();
         initializeGame();
         board.setOnMouseClicked(this::handleGridClick);
     }
@@ -86,8 +98,10 @@ public class GameController implements Initializable {
         Platform.runLater(() -> {
             initializeGraph();
             addSourceAndDrainVertex();
+            waterFlow = new WaterFlow(board.getRowCount(), board.getColumnCount(),
+                    sourceVertex.getData().getRow(), sourceVertex.getData().getCol());
             buildGraphWithoutPipes();
-            if (path().contains(drainVertex)) {
+            if (graph.connected(sourceVertex, drainVertex)) {
                 startTime = Calendar.getInstance();
                 paintFountainAndDraw();
                 graph.removeAllEdges();
@@ -99,16 +113,6 @@ public class GameController implements Initializable {
         });
     }
 
-    /**
-     * The function returns an ArrayList of vertices representing the path from the source vertex to
-     * other vertices in the graph using the breadth-first search algorithm.
-     * 
-     * @return The method is returning an ArrayList of Vertex objects with a generic type of Pipe.
-     */
-    private ArrayList<Vertex<Pipe>> path() {
-        return graph.bfs(sourceVertex);
-    }
-
     /**
      * The function generates a random set of blocked cells on a board.
      */
@@ -128,15 +132,23 @@ public class GameController implements Initializable {
 
     /**
      * The function initializes a graph by adding vertices based on the blockedCells array and adds
-     * black rectangles to the board for blocked cells.
+     * black rectangles to the board for blocked cells. Every vertex is also stored in the cell index,
+     * so it can be found from its row and column without going through the graph.
      */
+    @SuppressWarnings({"unchecked", "rawtypes"})
     private void initializeGraph() {
+        cellVertices = (Vertex<Pipe>[][]) new Vertex[board.getRowCount()][board.getColumnCount()];
+        pipeIndexes = new int[board.getRowCount()][board.getColumnCount()];
+        for (int[] row : pipeIndexes) {
+            Arrays.fill(row, NO_PIPE);
+        }
         for (int row = 0; row < board.getRowCount(); row++) {
             for (int col = 0; col < board.getColumnCount(); col++) {
                 boolean isBlocked = blockedCells[row][col];
                 if (!isBlocked) {
                     Vertex<Pipe> vertex = new Vertex<>(new Pipe(-1, row, col));
                     graph.addVertex(vertex);
+                    cellVertices[row][col] = vertex;
                 } else {
                     Rectangle rectangle = new Rectangle(board.getWidth() / board.getColumnCount(), board.getHeight() / board.getRowCount());
                     rectangle.setFill(Color.GREEN);
@@ -225,9 +237,8 @@ public class GameController implements Initializable {
                 return;
             }
             // update board
-            Pipe existingPipe = getPipeInCell(columnIndex, rowIndex);
-            if (existingPipe != null) {
-                pipesOnScreen.remove(existingPipe);
+            int pipeIndex = pipeIndexes[rowIndex][columnIndex];
+            if (pipeIndex != NO_PIPE) {
                 board.getChildren().removeIf(node -> GridPane.getColumnIndex(node) != null &&
                         GridPane.getRowIndex(node) != null &&
                         GridPane.getColumnIndex(node) == columnIndex &&
@@ -237,8 +248,15 @@ public class GameController implements Initializable {
                 currentImageIndex = 1;
             }
             Pipe pipe = new Pipe(currentImageIndex, rowIndex, columnIndex);
-            pipesOnScreen.add(pipe);
+            // a pipe that replaces another one takes its place in the list
+            if (pipeIndex != NO_PIPE) {
+                pipesOnScreen.set(pipeIndex, pipe);
+            } else {
+                pipeIndexes[rowIndex][columnIndex] = pipesOnScreen.size();
+                pipesOnScreen.add(pipe);
+            }
             showImageInBoard(pipe.getImage(),columnIndex,rowIndex);
+            waterFlow.setPipe(rowIndex, columnIndex, pipe.getType());
             currentImageIndex = (currentImageIndex % 6) + 1;
             // update vertex
             Vertex<Pipe> currentVertex = getVertexFromCell(columnIndex, rowIndex);
@@ -249,15 +267,34 @@ public class GameController implements Initializable {
     }
 /**
  * The function connects vertices with pipes on the screen by iterating through the pipes and
- * connecting them with their neighboring vertices.
+ * connecting each one with the neighbor pipes whose openings face its own, so the graph only holds
+ * the routes the water can follow. Every pair of neighbors is looked at once, from the pipe on the
+ * left or on the top.
  */
 
     private void connectVerticesWithPipes() {
         for (Pipe pipe : pipesOnScreen){
-            Vertex<Pipe> currentVertex = getVertexFromCell(pipe.getCol(), pipe.getRow());
-            if (currentVertex != null) {
-                connectWithNeighbors(currentVertex);
-            }
+            connectWithAlignedPipe(pipe, Direction.RIGHT, pipe.getRow(), pipe.getCol() + 1);
+            connectWithAlignedPipe(pipe, Direction.DOWN, pipe.getRow() + 1, pipe.getCol());
+        }
+    }
+
+    /**
+     * The function adds an edge between a pipe and the pipe of a neighbor cell when both have an
+     * opening facing the other one.
+     * 
+     * @param pipe The pipe whose vertex is connected.
+     * @param direction The side of the pipe where the neighbor cell is.
+     * @param rowIndex The row of the neighbor cell, which may be outside of the board.
+     * @param columnIndex The column of the neighbor cell, which may be outside of the board.
+     */
+    private void connectWithAlignedPipe(Pipe pipe, Direction direction, int rowIndex, int columnIndex) {
+        if (rowIndex >= board.getRowCount() || columnIndex >= board.getColumnCount()) {
+            return;
+        }
+        Pipe neighborPipe = getPipeInCell(columnIndex, rowIndex);
+        if (neighborPipe != null && isValidPipeConnection(pipe, neighborPipe, direction)) {
+            graph.addEdge(getVertexFromCell(pipe.getCol(), pipe.getRow()), getVertexFromCell(columnIndex, rowIndex), 1);
         }
     }
 
@@ -329,25 +366,23 @@ public class GameController implements Initializable {
     }
 
    /**
-    * The function returns a vertex from a graph based on the given column and row indices.
+    * The function returns the vertex of a cell of the board, read from the cell index in constant
+    * time.
     * 
     * @param columnIndex The columnIndex parameter represents the index of the column in a grid or
     * matrix. It is used to locate a specific vertex in a graph based on its column position.
     * @param rowIndex The rowIndex parameter represents the index of the row in the grid where the
     * desired vertex is located.
-    * @return The method is returning a Vertex object with generic type Pipe.
+    * @return The method is returning a Vertex object with generic type Pipe, or null if the cell is
+    * blocked.
     */
     private Vertex<Pipe> getVertexFromCell(int columnIndex, int rowIndex) {
-        for (Vertex<Pipe> vertex : graph.getVertices()) {
-            if (vertex.getData().getRow() == rowIndex && vertex.getData().getCol() == columnIndex) {
-                return vertex;
-            }
-        }
-        return null;
+        return cellVertices[rowIndex][columnIndex];
     }
 
     /**
-     * The function returns the pipe object located at a specific column and row in a list of pipes.
+     * The function returns the pipe object located at a specific column and row, found through the
+     * occupancy grid in constant time.
      * 
      * @param columnIndex The column index represents the column number of the cell in which the pipe
      * is located. It is used to identify the specific column in the grid where the pipe is present.
@@ -356,12 +391,8 @@ public class GameController implements Initializable {
      * @return The method is returning a Pipe object.
      */
     private Pipe getPipeInCell(int columnIndex, int rowIndex) {
-        for (Pipe pipe : pipesOnScreen) {
-            if (pipe.getCol() == columnIndex && pipe.getRow() == rowIndex) {
-                return pipe;
-            }
-        }
-        return null;
+        int pipeIndex = pipeIndexes[rowIndex][columnIndex];
+        return pipeIndex == NO_PIPE ? null : pipesOnScreen.get(pipeIndex);
     }
 
     /**
@@ -393,7 +424,8 @@ public class GameController implements Initializable {
             String msg = "Number of pipes used: " + pipesOnScreen.size();
             msg += "\nTime: " + seconds + " sec.";
 
-            int myPathSize = path().size();
+            // the cells reached by the water are the ones connected to the source in the graph
+            int myPathSize = waterFlow.wetCount();
             int shortestPathSize = shortestPath().size();
             if (myPathSize == shortestPathSize){
                 msg += "\nYou found one of the fastest ways! +1000 pts";
@@ -413,94 +445,35 @@ public class GameController implements Initializable {
     /**
      * The function "validatePath" checks if a path between a source and drain vertex is valid by
      * validating the source and drain vertices, connecting the vertices with pipes, and checking if
-     * the path contains the drain vertex and if the pipe connections are valid.
+     * the drain can be reached from the source. Pipes are only connected when their openings face
+     * each other, so reaching the drain is enough to prove the path. A board where the water does
+     * not reach the drain is rejected at once, without building the graph.
      * 
      * @return The method is returning a boolean value.
      */
     private boolean validatePath(){
+        if (!waterFlow.isWet(drainVertex.getData().getRow(), drainVertex.getData().getCol())) {
+            return false;
+        }
         if (validateSourceAndDrain()){
             connectVerticesWithPipes();
-            if (path().contains(drainVertex)){
-                return validatePipeConnections(path());
-            }
+            return graph.connected(sourceVertex, drainVertex);
         }
         return false;
     }
 
     /**
      * The function validates whether the source and drain vertices have compatible pipe types based on
-     * the orientation of the pipe.
+     * the orientation of the pipe: the source has to be open towards the side the water comes from
+     * and the drain towards the side it leaves by.
      * 
      * @return The method is returning a boolean value.
      */
     private boolean validateSourceAndDrain(){
         PipeType sourceType = sourceVertex.getData().getType();
         PipeType drainType = drainVertex.getData().getType();
-        if (isVertical){
-            return (sourceType == PipeType.ELBOW_UP_LEFT || sourceType == PipeType.ELBOW_DOWN_RIGHT || sourceType == PipeType.VERTICAL) &&
-                   (drainType == PipeType.ELBOW_DOWN_LEFT || drainType == PipeType.ELBOW_DOWN_RIGHT || drainType == PipeType.VERTICAL);
-        } else {
-            return (sourceType == PipeType.ELBOW_DOWN_LEFT || sourceType == PipeType.ELBOW_UP_LEFT || sourceType == PipeType.HORIZONTAL) &&
-                   (drainType == PipeType.ELBOW_DOWN_RIGHT || drainType == PipeType.ELBOW_UP_RIGHT || drainType == PipeType.HORIZONTAL);
-        }
-    }
-
-    /**
-     * The function validates the connections between pipes in a given path.
-     * 
-     * @param path An ArrayList of Vertex objects representing the path of the pipe connections.
-     * @return The method is returning a boolean value.
-     */
-    private boolean validatePipeConnections(ArrayList<Vertex<Pipe>> path) {
-        ArrayList<Vertex<Pipe>> covered = new ArrayList<>();
-        Vertex<Pipe> currentVertex = path.get(0);
-        while (currentVertex != drainVertex){
-            Vertex<Pipe> nextVertex = null;
-            for (Vertex<Pipe> neighbor : currentVertex.getNeighbors()) {
-                if (!covered.contains(neighbor)) {
-                    Direction direction = getPipeDirection(currentVertex, neighbor);
-                    if (isValidPipeConnection(currentVertex.getData(), neighbor.getData(), direction)) {
-                        nextVertex = neighbor;
-                        break;
-                    }
-                }
-            }
-            if (nextVertex == null) {
-                return false;
-            }
-            covered.add(currentVertex);
-            currentVertex = nextVertex;
-        }
-        return true;
-    }
-
-    /**
-     * The function returns the direction in which a pipe should be connected based on the current and
-     * next vertex positions.
-     * 
-     * @param currentVertex The current vertex in the graph, which contains a Pipe object with
-     * information about its row and column position.
-     * @param nextVertex The nextVertex parameter is the vertex that is adjacent to the currentVertex
-     * parameter. It represents the next vertex in the path or direction that we are trying to
-     * determine.
-     * @return The method returns a Direction enum value, which represents the direction from the
-     * current vertex to the next vertex.
-     */
-    private Direction getPipeDirection(Vertex<Pipe> currentVertex, Vertex<Pipe> nextVertex) {
-        int currentRow = currentVertex.getData().getRow();
-        int currentCol = currentVertex.getData().getCol();
-        int nextRow = nextVertex.getData().getRow();
-        int nextCol = nextVertex.getData().getCol();
-        if (currentRow < nextRow) {
-            return Direction.DOWN;
-        } else if (currentRow > nextRow) {
-            return Direction.UP;
-        } else if (currentCol < nextCol) {
-            return Direction.RIGHT;
-        } else if (currentCol > nextCol) {
-            return Direction.LEFT;
-        }
-        return null;
+        return sourceType != null && sourceType.opensTo(isVertical ? Direction.UP : Direction.LEFT) &&
+               drainType != null && drainType.opensTo(isVertical ? Direction.DOWN : Direction.RIGHT);
     }
 
     /**
@@ -513,50 +486,12 @@ public class GameController implements Initializable {
      * specific direction.
      * @param direction The direction parameter represents the direction in which the next pipe is
      * connected to the current pipe. It can have one of the following values: UP, DOWN, LEFT, or
-     * RIGHT.
+     * RIGHT. The answer comes from the table of openings of PipeType.
      * @return The method is returning a boolean value.
      */
     private boolean isValidPipeConnection(Pipe currentPipe, Pipe nextPipe, Direction direction) {
         PipeType currentType = currentPipe.getType();
-        PipeType nextType = nextPipe.getType();
-        if (currentType == PipeType.VERTICAL){
-            if (direction == Direction.DOWN){
-                return (nextType == PipeType.VERTICAL || nextType == PipeType.ELBOW_UP_LEFT || nextType == PipeType.ELBOW_UP_RIGHT);
-            } else if (direction == Direction.UP){
-                return (nextType == PipeType.VERTICAL || nextType == PipeType.ELBOW_DOWN_LEFT || nextType == PipeType.ELBOW_DOWN_RIGHT);
-            }
-        } else if (currentType == PipeType.HORIZONTAL){
-            if (direction == Direction.LEFT){
-                return (nextType == PipeType.HORIZONTAL || nextType == PipeType.ELBOW_UP_RIGHT || nextType == PipeType.ELBOW_DOWN_RIGHT);
-            } else if (direction == Direction.RIGHT){
-                return (nextType == PipeType.HORIZONTAL || nextType == PipeType.ELBOW_UP_LEFT || nextType == PipeType.ELBOW_DOWN_LEFT);
-            }
-        } else if (currentType == PipeType.ELBOW_UP_RIGHT){
-            if (direction == Direction.RIGHT){
-                return (nextType == PipeType.HORIZONTAL || nextType == PipeType.ELBOW_UP_LEFT || nextType == PipeType.ELBOW_DOWN_LEFT);
-            } else if (direction == Direction.UP){
-                return (nextType == PipeType.VERTICAL || nextType == PipeType.ELBOW_DOWN_LEFT || nextType == PipeType.ELBOW_DOWN_RIGHT);
-            }
-        } else if (currentType == PipeType.ELBOW_UP_LEFT){
-            if (direction == Direction.LEFT){
-                return (nextType == PipeType.HORIZONTAL || nextType == PipeType.ELBOW_UP_RIGHT || nextType == PipeType.ELBOW_DOWN_RIGHT);
-            } else if (direction == Direction.UP){
-                return (nextType == PipeType.VERTICAL || nextType == PipeType.ELBOW_DOWN_LEFT || nextType == PipeType.ELBOW_DOWN_RIGHT);
-            }
-        } else if (currentType == PipeType.ELBOW_DOWN_RIGHT){
-            if (direction == Direction.RIGHT){
-                return (nextType == PipeType.HORIZONTAL || nextType == PipeType.ELBOW_UP_LEFT || nextType == PipeType.ELBOW_DOWN_LEFT);
-            } else if (direction == Direction.DOWN){
-                return (nextType == PipeType.VERTICAL || nextType == PipeType.ELBOW_UP_LEFT || nextType == PipeType.ELBOW_UP_RIGHT);
-            }
-        } else if (currentType == PipeType.ELBOW_DOWN_LEFT){
-            if (direction == Direction.LEFT){
-                return (nextType == PipeType.HORIZONTAL || nextType == PipeType.ELBOW_UP_RIGHT || nextType == PipeType.ELBOW_DOWN_RIGHT);
-            } else if (direction == Direction.DOWN){
-                return (nextType == PipeType.VERTICAL || nextType == PipeType.ELBOW_UP_LEFT || nextType == PipeType.ELBOW_UP_RIGHT);
-            }
-        }
-        return false;
+        return currentType != null && currentType.connectsTo(nextPipe.getType(), direction);
     }
 
     /**
@@ -580,13 +515,13 @@ public class GameController implements Initializable {
 
     /**
      * The function returns the shortest path between a source vertex and a drain vertex in a graph
-     * using Dijkstra's algorithm.
+     * using the A* algorithm, guided by the Manhattan distance between the cells of the board.
      * 
      * @return The method `shortestPath()` returns an `ArrayList` of `Vertex` objects representing the
      * shortest path from the source vertex to the drain vertex in a graph.
      */
     private ArrayList<Vertex<Pipe>> shortestPath(){
-        return graph.dijkstra(sourceVertex,drainVertex);
+        return graph.aStar(sourceVertex, drainVertex, MANHATTAN);
     }
 
    /**
@@ -595,7 +530,7 @@ public class GameController implements Initializable {
     private void buildGraphWithoutPipes() {
         for (int row = 0; row < board.getRowCount(); row++) {
             for (int col = 0; col < board.getColumnCount(); col++) {
-                Vertex<Pipe> currentVertex = getVertexFromCell(row, col);
+                Vertex<Pipe> currentVertex = getVertexFromCell(col, row);
                 if (currentVertex != null){
                     connectWithNeighbors(currentVertex);
                 }
@@ -635,6 +570,7 @@ public class GameController implements Initializable {
         for (Pipe pipe : pipesOnScreen) {
             int columnIndex = pipe.getCol();
             int rowIndex = pipe.getRow();
+            pipeIndexes[rowIndex][columnIndex] = NO_PIPE;
             board.getChildren().removeIf(node -> GridPane.getColumnIndex(node) != null &&
                     GridPane.getRowIndex(node) != null &&
                     GridPane.getColumnIndex(node) == columnIndex &&
@@ -646,6 +582,7 @@ public class GameController implements Initializable {
             }
         }
         pipesOnScreen.clear();
+        waterFlow.clear();
     }
 
     /**
@@ -0,0 +1,429 @@
+package com.example.pipegame.model;
+import com.example.exception.GraphException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * The AdjacencyStorage class holds the cells of the adjacency matrix of a GraphAdjacentyMatriz. The
+ * graph only works with slots (row and column numbers) and the number of slots in use; how the cells
+ * are laid out in memory is decided by the MatrixLayout given to the graph.
+ */
+abstract class AdjacencyStorage {
+
+    /**
+     * The function creates an empty storage for the given layout.
+     *
+     * @param layout The layout of the matrix.
+     * @return A storage with capacity 0.
+     */
+    static AdjacencyStorage create(MatrixLayout layout) {
+        switch (layout) {
+            case FLAT -> {return new Flat();}
+            case OFF_HEAP -> {return new OffHeap();}
+            case BITSET -> {return new Bitset();}
+            default -> {return new Jagged();}
+        }
+    }
+
+    /**
+     * The function returns the number of rows (and columns) the storage can hold.
+     *
+     * @return The physical size of the matrix.
+     */
+    abstract int capacity();
+
+    abstract int get(int row, int col);
+
+    abstract void set(int row, int col, int weight);
+
+    /**
+     * The function reallocates the matrix with a bigger capacity, keeping the cells of the slots in
+     * use.
+     *
+     * @param capacity The new physical size of the matrix.
+     * @param used The number of slots in use.
+     */
+    abstract void grow(int capacity, int used);
+
+    /**
+     * The function returns the first column of a row, starting at from, that holds an edge. The graph
+     * walks a row with it instead of reading every cell through get, so every layout scans its own
+     * memory directly.
+     *
+     * @param row The row to scan.
+     * @param from The first column to look at.
+     * @param used The number of slots in use.
+     * @return The column of the next edge, or -1 if there are no more edges in the row.
+     */
+    abstract int nextNeighbor(int row, int from, int used);
+
+    /**
+     * The function sets to 0 the first cells of a row.
+     *
+     * @param row The row to clear.
+     * @param used The number of slots in use.
+     */
+    abstract void clearRow(int row, int used);
+
+    void clearColumn(int col, int used) {
+        for (int row = 0; row < used; row++) {
+            set(row, col, 0);
+        }
+    }
+
+    /**
+     * The function copies the first cells of a row into an array.
+     *
+     * @param row The row to copy.
+     * @param target The array that receives the cells.
+     * @param length The number of cells to copy.
+     */
+    void copyRow(int row, int[] target, int length) {
+        for (int col = 0; col < length; col++) {
+            target[col] = get(row, col);
+        }
+    }
+
+    /**
+     * The function moves the rows and columns of the live slots down to the first positions and
+     * clears the rest. Live slots only move to lower positions and keep their relative order, so
+     * processing them in increasing order never overwrites a cell that has not been read yet.
+     *
+     * @param live The old slot of every live vertex, in increasing order.
+     * @param count The number of live slots.
+     * @param used The number of slots in use before compacting.
+     */
+    void compact(int[] live, int count, int used) {
+        for (int newRow = 0; newRow < count; newRow++) {
+            int oldRow = live[newRow];
+            for (int newCol = 0; newCol < count; newCol++) {
+                set(newRow, newCol, get(oldRow, live[newCol]));
+            }
+            for (int col = count; col < used; col++) {
+                set(newRow, col, 0);
+            }
+        }
+        for (int row = count; row < used; row++) {
+            clearRow(row, used);
+        }
+    }
+
+    /**
+     * The Jagged class keeps one int[] per row, which is how the matrix graph has always stored its
+     * cells.
+     */
+    private static final class Jagged extends AdjacencyStorage {
+
+        private int[][] rows = new int[0][0];
+
+        @Override
+        int capacity() {
+            return rows.length;
+        }
+
+        @Override
+        int get(int row, int col) {
+            return rows[row][col];
+        }
+
+        @Override
+        void set(int row, int col, int weight) {
+            rows[row][col] = weight;
+        }
+
+        @Override
+        void grow(int capacity, int used) {
+            int[][] newRows = new int[capacity][capacity];
+            for (int i = 0; i < used; i++) {
+                System.arraycopy(rows[i], 0, newRows[i], 0, used);
+            }
+            rows = newRows;
+        }
+
+        @Override
+        int nextNeighbor(int row, int from, int used) {
+            int[] cells = rows[row];
+            for (int col = from; col < used; col++) {
+                if (cells[col] != 0) {
+                    return col;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void clearRow(int row, int used) {
+            Arrays.fill(rows[row], 0, used, 0);
+        }
+
+        @Override
+        void copyRow(int row, int[] target, int length) {
+            System.arraycopy(rows[row], 0, target, 0, length);
+        }
+    }
+
+    /**
+     * The Flat class keeps the whole matrix in a single int[] in row-major order, so a row is a run of
+     * contiguous ints and there is one array object instead of one per row. Java arrays are indexed
+     * by int, which limits the capacity to 46340 rows.
+     */
+    private static final class Flat extends AdjacencyStorage {
+
+        private static final int MAX_CAPACITY = 46340;
+
+        private int[] cells = new int[0];
+        private int stride = 0;
+
+        @Override
+        int capacity() {
+            return stride;
+        }
+
+        @Override
+        int get(int row, int col) {
+            return cells[row * stride + col];
+        }
+
+        @Override
+        void set(int row, int col, int weight) {
+            cells[row * stride + col] = weight;
+        }
+
+        @Override
+        void grow(int capacity, int used) {
+            if (capacity > MAX_CAPACITY) {
+                if (used >= MAX_CAPACITY) {
+                    throw new GraphException("The flat layout can not hold more than " + MAX_CAPACITY
+                            + " vertices, use the off-heap layout.");
+                }
+                capacity = MAX_CAPACITY;
+            }
+            int[] newCells = new int[capacity * capacity];
+            for (int i = 0; i < used; i++) {
+                System.arraycopy(cells, i * stride, newCells, i * capacity, used);
+            }
+            cells = newCells;
+            stride = capacity;
+        }
+
+        @Override
+        int nextNeighbor(int row, int from, int used) {
+            int base = row * stride;
+            for (int col = from; col < used; col++) {
+                if (cells[base + col] != 0) {
+                    return col;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void clearRow(int row, int used) {
+            Arrays.fill(cells, row * stride, row * stride + used, 0);
+        }
+
+        @Override
+        void copyRow(int row, int[] target, int length) {
+            System.arraycopy(cells, row * stride, target, 0, length);
+        }
+    }
+
+    /**
+     * The OffHeap class keeps the matrix in direct ByteBuffers, outside of the Java heap, so a big
+     * matrix is neither scanned nor moved by the garbage collector. A single buffer can not pass 2 GB,
+     * so the rows are split in chunks of up to 1 GB; a row never crosses two chunks and is still a run
+     * of contiguous ints.
+     */
+    private static final class OffHeap extends AdjacencyStorage {
+
+        private static final int CHUNK_INTS = 1 << 28;
+
+        private IntBuffer[] chunks = new IntBuffer[0];
+        private int capacity = 0;
+        private int rowsPerChunk = 1;
+
+        @Override
+        int capacity() {
+            return capacity;
+        }
+
+        @Override
+        int get(int row, int col) {
+            return chunks[row / rowsPerChunk].get((row % rowsPerChunk) * capacity + col);
+        }
+
+        @Override
+        void set(int row, int col, int weight) {
+            chunks[row / rowsPerChunk].put((row % rowsPerChunk) * capacity + col, weight);
+        }
+
+        @Override
+        void grow(int capacity, int used) {
+            int newRowsPerChunk = Math.max(1, CHUNK_INTS / capacity);
+            IntBuffer[] newChunks = new IntBuffer[(capacity + newRowsPerChunk - 1) / newRowsPerChunk];
+            for (int c = 0; c < newChunks.length; c++) {
+                int rows = Math.min(newRowsPerChunk, capacity - c * newRowsPerChunk);
+                // direct buffers start filled with zeros
+                newChunks[c] = ByteBuffer.allocateDirect(rows * capacity * Integer.BYTES)
+                        .order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+            // every row is moved with one bulk put between views of the old and the new chunk
+            for (int i = 0; i < used; i++) {
+                IntBuffer source = chunks[i / rowsPerChunk].duplicate();
+                int from = (i % rowsPerChunk) * this.capacity;
+                source.limit(from + used);
+                source.position(from);
+                IntBuffer target = newChunks[i / newRowsPerChunk].duplicate();
+                target.position((i % newRowsPerChunk) * capacity);
+                target.put(source);
+            }
+            chunks = newChunks;
+            this.capacity = capacity;
+            rowsPerChunk = newRowsPerChunk;
+        }
+
+        @Override
+        int nextNeighbor(int row, int from, int used) {
+            IntBuffer chunk = chunks[row / rowsPerChunk];
+            int base = (row % rowsPerChunk) * capacity;
+            for (int col = from; col < used; col++) {
+                if (chunk.get(base + col) != 0) {
+                    return col;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        void clearRow(int row, int used) {
+            IntBuffer chunk = chunks[row / rowsPerChunk];
+            int base = (row % rowsPerChunk) * capacity;
+            for (int col = 0; col < used; col++) {
+                chunk.put(base + col, 0);
+            }
+        }
+    }
+
+    /**
+     * The Bitset class keeps one bit per cell in a long[] per row, 32 times less memory than an int
+     * per cell. It can only store unweighted graphs: every edge has weight 1. The graph uses the
+     * words of the rows directly to expand a search 64 vertices at a time.
+     */
+    static final class Bitset extends AdjacencyStorage {
+
+        private long[][] rows = new long[0][0];
+
+        /**
+         * The function creates a bitset with the first slots set, the starting point of the
+         * unvisited set of a search.
+         *
+         * @param used The number of slots in use.
+         * @return A long[] with a bit per slot in the length of a row.
+         */
+        long[] allSet(int used) {
+            long[] bits = new long[words(capacity())];
+            for (int w = 0; w < used >>> 6; w++) {
+                bits[w] = -1L;
+            }
+            if ((used & 63) != 0) {
+                bits[used >>> 6] = (1L << used) - 1;
+            }
+            return bits;
+        }
+
+        /**
+         * The function returns the words of a row. The caller must not modify them.
+         *
+         * @param row The row wanted.
+         * @return The long[] of the row, with bit j of word w standing for column w * 64 + j.
+         */
+        long[] row(int row) {
+            return rows[row];
+        }
+
+        /**
+         * The function returns the first column of a row, starting at from, that holds an edge to a
+         * vertex still set in the unvisited bitset. A whole word of candidates is tested with one AND.
+         *
+         * @param row The row to scan.
+         * @param from The first column to look at.
+         * @param unvisited The bitset of the vertices not visited yet.
+         * @return The column found, or -1 if there is none.
+         */
+        int nextUnvisited(int row, int from, long[] unvisited) {
+            long[] cells = rows[row];
+            int w = from >>> 6;
+            if (w >= cells.length) {
+                return -1;
+            }
+            long word = cells[w] & unvisited[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == cells.length) {
+                    return -1;
+                }
+                word = cells[w] & unvisited[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        int capacity() {
+            return rows.length;
+        }
+
+        @Override
+        int get(int row, int col) {
+            return (int) (rows[row][col >>> 6] >>> col) & 1;
+        }
+
+        @Override
+        void set(int row, int col, int weight) {
+            if (weight == 0) {
+                rows[row][col >>> 6] &= ~(1L << col);
+            } else if (weight == 1) {
+                rows[row][col >>> 6] |= 1L << col;
+            } else {
+                throw new GraphException("The bitset layout only holds edges of weight 1.");
+            }
+        }
+
+        @Override
+        void grow(int capacity, int used) {
+            long[][] newRows = new long[capacity][words(capacity)];
+            for (int i = 0; i < used; i++) {
+                System.arraycopy(rows[i], 0, newRows[i], 0, rows[i].length);
+            }
+            rows = newRows;
+        }
+
+        @Override
+        int nextNeighbor(int row, int from, int used) {
+            long[] cells = rows[row];
+            int w = from >>> 6;
+            if (w >= cells.length) {
+                return -1;
+            }
+            // the columns after used never hold edges, so the scan can go to the end of the row
+            long word = cells[w] & (-1L << from);
+            while (word == 0) {
+                if (++w == cells.length) {
+                    return -1;
+                }
+                word = cells[w];
+            }
+            return (w << 6) + Long.numberOfTrailingZeros(word);
+        }
+
+        @Override
+        void clearRow(int row, int used) {
+            Arrays.fill(rows[row], 0L);
+        }
+
+        private static int words(int capacity) {
+            return (capacity + 63) >>> 6;
+        }
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+
+/**
+ * The BidirectionalSearch class answers point-to-point queries by searching from both ends at once:
+ * one search grows from the source and the other from the target, and they stop as soon as the
+ * frontiers meet and no shorter path can be found. On a grid the two searches together explore
+ * roughly half of the area a single search from the source needs to reach the target.
+ *
+ * The graphs are undirected, so the search from the target uses the same edges. The graphs describe
+ * their edges over int ids with an IntAdjacency, and the result is the path as ids, from the target
+ * back to the source, in the same shape as the dijkstra method of IGraph.
+ */
+final class BidirectionalSearch {
+
+    private static final int NO_VERTEX = Traversal.NO_VERTEX;
+
+    private BidirectionalSearch() {
+    }
+
+    /**
+     * The function finds a path with the fewest edges between two vertices with a bidirectional
+     * breadth-first search. Every step expands a whole level of the smaller frontier, and the search
+     * stops at the end of the first level where the frontiers touch.
+     *
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @param source The id of the first vertex of the path.
+     * @param target The id of the last vertex of the path.
+     * @return The ids of the path from the target back to the source. If the target can not be
+     * reached, only the target.
+     */
+    static int[] bfs(int size, IntAdjacency adjacency, int source, int target) {
+        if (source == target) {
+            return new int[]{target};
+        }
+        BfsSide forward = new BfsSide(size, source);
+        BfsSide backward = new BfsSide(size, target);
+        while (forward.tail > forward.head && backward.tail > backward.head) {
+            BfsSide side = forward.tail - forward.head <= backward.tail - backward.head ? forward : backward;
+            BfsSide other = side == forward ? backward : forward;
+            side.expandLevel(adjacency, other);
+            if (side.meetFrom != NO_VERTEX) {
+                return side == forward
+                        ? path(forward.predecessor, side.meetFrom, backward.predecessor, side.meetTo)
+                        : path(forward.predecessor, side.meetTo, backward.predecessor, side.meetFrom);
+            }
+        }
+        return new int[]{target};
+    }
+
+    /**
+     * The function finds the shortest path between two vertices with a bidirectional Dijkstra. Every
+     * step settles the vertex with the smallest key of the two queues. The search stops when the sum
+     * of the smallest keys of both queues is not smaller than the best path found, because no path
+     * through unsettled vertices can be shorter. The weights must not be negative.
+     *
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @param source The id of the first vertex of the path.
+     * @param target The id of the last vertex of the path.
+     * @return The ids of the shortest path from the target back to the source. If the target can not
+     * be reached, only the target.
+     */
+    static int[] dijkstra(int size, IntAdjacency adjacency, int source, int target) {
+        if (source == target) {
+            return new int[]{target};
+        }
+        DijkstraSide forward = new DijkstraSide(size, source, true);
+        DijkstraSide backward = new DijkstraSide(size, target, false);
+        forward.other = backward;
+        backward.other = forward;
+        Meeting meeting = new Meeting();
+        forward.meeting = meeting;
+        backward.meeting = meeting;
+        while (true) {
+            long forwardKey = forward.heap.peekKey();
+            long backwardKey = backward.heap.peekKey();
+            if (forwardKey == Integer.MAX_VALUE || backwardKey == Integer.MAX_VALUE
+                    || forwardKey + backwardKey >= meeting.length) {
+                break;
+            }
+            DijkstraSide side = forwardKey <= backwardKey ? forward : backward;
+            side.settleNext(adjacency);
+        }
+        if (meeting.forwardVertex == NO_VERTEX) {
+            return new int[]{target};
+        }
+        return path(forward.predecessor, meeting.forwardVertex, backward.predecessor, meeting.backwardVertex);
+    }
+
+    /**
+     * The function joins the two halves of a path: the vertices from the target to the meeting edge
+     * and then the vertices from the meeting edge to the source.
+     *
+     * @param forwardPredecessor The predecessors of the search from the source.
+     * @param forwardVertex The end of the meeting edge reached from the source.
+     * @param backwardPredecessor The predecessors of the search from the target.
+     * @param backwardVertex The end of the meeting edge reached from the target.
+     * @return The ids of the path from the target back to the source.
+     */
+    private static int[] path(int[] forwardPredecessor, int forwardVertex, int[] backwardPredecessor, int backwardVertex) {
+        int backwardLength = 0;
+        for (int current = backwardVertex; current != NO_VERTEX; current = backwardPredecessor[current]) {
+            backwardLength++;
+        }
+        int forwardLength = 0;
+        for (int current = forwardVertex; current != NO_VERTEX; current = forwardPredecessor[current]) {
+            forwardLength++;
+        }
+        int[] path = new int[backwardLength + forwardLength];
+        int position = backwardLength - 1;
+        for (int current = backwardVertex; current != NO_VERTEX; current = backwardPredecessor[current]) {
+            path[position--] = current;
+        }
+        position = backwardLength;
+        for (int current = forwardVertex; current != NO_VERTEX; current = forwardPredecessor[current]) {
+            path[position++] = current;
+        }
+        return path;
+    }
+
+    /**
+     * The BfsSide class is the state of one of the two breadth-first searches. The queue holds every
+     * vertex reached, and the vertices between head and tail are the current frontier.
+     */
+    private static final class BfsSide implements IntAdjacency.EdgeVisitor {
+
+        final int[] predecessor;
+        final int[] distance;
+        final int[] queue;
+        int head;
+        int tail;
+        int meetFrom;
+        int meetTo;
+        private int meetLength;
+        private int current;
+        private BfsSide other;
+
+        BfsSide(int size, int root) {
+            predecessor = new int[size];
+            distance = new int[size];
+            queue = new int[size];
+            Arrays.fill(predecessor, NO_VERTEX);
+            Arrays.fill(distance, -1);
+            distance[root] = 0;
+            queue[tail++] = root;
+            meetFrom = NO_VERTEX;
+            meetTo = NO_VERTEX;
+            meetLength = Integer.MAX_VALUE;
+        }
+
+        void expandLevel(IntAdjacency adjacency, BfsSide other) {
+            this.other = other;
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                current = queue[head++];
+                adjacency.forEachEdge(current, this);
+            }
+        }
+
+        @Override
+        public void visit(int neighbor, int weight) {
+            if (other.distance[neighbor] != -1) {
+                int length = distance[current] + 1 + other.distance[neighbor];
+                if (length < meetLength) {
+                    meetLength = length;
+                    meetFrom = current;
+                    meetTo = neighbor;
+                }
+            }
+            if (distance[neighbor] == -1) {
+                distance[neighbor] = distance[current] + 1;
+                predecessor[neighbor] = current;
+                queue[tail++] = neighbor;
+            }
+        }
+    }
+
+    /**
+     * The Meeting class remembers the edge of the shortest path found so far between both searches.
+     */
+    private static final class Meeting {
+        long length = Long.MAX_VALUE;
+        int forwardVertex = NO_VERTEX;
+        int backwardVertex = NO_VERTEX;
+    }
+
+    /**
+     * The DijkstraSide class is the state of one of the two Dijkstra searches.
+     */
+    private static final class DijkstraSide implements IntAdjacency.EdgeVisitor {
+
+        final int[] predecessor;
+        final int[] distance;
+        final boolean[] settled;
+        final IndexedMinHeap heap;
+        private final boolean isForward;
+        DijkstraSide other;
+        Meeting meeting;
+        private int current;
+
+        DijkstraSide(int size, int root, boolean isForward) {
+            this.isForward = isForward;
+            predecessor = new int[size];
+            distance = new int[size];
+            settled = new boolean[size];
+            heap = new IndexedMinHeap(size);
+            Arrays.fill(predecessor, NO_VERTEX);
+            Arrays.fill(distance, Integer.MAX_VALUE);
+            distance[root] = 0;
+            heap.push(root, 0);
+        }
+
+        void settleNext(IntAdjacency adjacency) {
+            current = heap.poll();
+            settled[current] = true;
+            adjacency.forEachEdge(current, this);
+        }
+
+        @Override
+        public void visit(int neighbor, int weight) {
+            int newDistance = distance[current] + weight;
+            if (!settled[neighbor] && newDistance < distance[neighbor]) {
+                distance[neighbor] = newDistance;
+                predecessor[neighbor] = current;
+                heap.push(neighbor, newDistance);
+            }
+            if (other.distance[neighbor] != Integer.MAX_VALUE) {
+                long length = (long) distance[current] + weight + other.distance[neighbor];
+                if (length < meeting.length) {
+                    meeting.length = length;
+                    if (isForward) {
+                        meeting.forwardVertex = current;
+                        meeting.backwardVertex = neighbor;
+                    } else {
+                        meeting.forwardVertex = neighbor;
+                        meeting.backwardVertex = current;
+                    }
+                }
+            }
+        }
+    }
+}
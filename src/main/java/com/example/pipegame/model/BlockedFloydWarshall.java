@@ -0,0 +1,133 @@
+package com.example.pipegame.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * The BlockedFloydWarshall class runs the Floyd-Warshall algorithm over a distance matrix split in
+ * square tiles of BLOCK x BLOCK cells, so the three tiles touched by the inner loops stay in cache.
+ * Every phase k works in three steps:
+ *
+ * 1. the diagonal tile (k, k) is solved on its own;
+ * 2. the tiles of row k and of column k only depend on the diagonal tile, so they run in parallel;
+ * 3. every other tile (i, j) only depends on the tiles (i, k) and (k, j), so they run in parallel
+ *    too, one task per row of tiles.
+ *
+ * The parallel steps run on a ForkJoinPool with the parallelism chosen by the caller. Without
+ * negative cycles the result is the same as the one of the classic triple loop.
+ */
+final class BlockedFloydWarshall {
+
+    static final int BLOCK = 64;
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private BlockedFloydWarshall() {
+    }
+
+    /**
+     * The function computes the shortest distance between all pairs of vertices in place.
+     *
+     * @param dist A square matrix with the weight of the edge between every pair of vertices,
+     * Integer.MAX_VALUE where there is no edge and 0 in the diagonal.
+     * @param parallelism The number of threads to use. With 1, or when the matrix is a single tile,
+     * everything runs in the calling thread.
+     * @return The same matrix, with the shortest distances.
+     */
+    static int[][] solve(int[][] dist, int parallelism) {
+        int size = dist.length;
+        int blocks = (size + BLOCK - 1) / BLOCK;
+        if (parallelism <= 1 || blocks <= 1) {
+            for (int kb = 0; kb < blocks; kb++) {
+                phase(dist, kb, blocks, null);
+            }
+            return dist;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int kb = 0; kb < blocks; kb++) {
+                phase(dist, kb, blocks, pool);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return dist;
+    }
+
+    private static void phase(int[][] dist, int kb, int blocks, ForkJoinPool pool) {
+        relax(dist, kb, kb, kb);
+
+        List<Runnable> crossTiles = new ArrayList<>(2 * blocks);
+        for (int b = 0; b < blocks; b++) {
+            if (b != kb) {
+                int other = b;
+                crossTiles.add(() -> relax(dist, kb, other, kb));
+                crossTiles.add(() -> relax(dist, other, kb, kb));
+            }
+        }
+        runAll(crossTiles, pool);
+
+        List<Runnable> rows = new ArrayList<>(blocks);
+        for (int ib = 0; ib < blocks; ib++) {
+            if (ib != kb) {
+                int rowBlock = ib;
+                rows.add(() -> {
+                    for (int jb = 0; jb < blocks; jb++) {
+                        if (jb != kb) {
+                            relax(dist, rowBlock, jb, kb);
+                        }
+                    }
+                });
+            }
+        }
+        runAll(rows, pool);
+    }
+
+    private static void runAll(List<Runnable> tasks, ForkJoinPool pool) {
+        if (pool == null) {
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            return;
+        }
+        List<ForkJoinTask<?>> forkJoinTasks = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            forkJoinTasks.add(ForkJoinTask.adapt(task));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(forkJoinTasks)));
+    }
+
+    /**
+     * The function relaxes the tile (ib, jb) through the vertices of the tile column kb.
+     *
+     * @param dist The distance matrix.
+     * @param ib The row of tiles being updated.
+     * @param jb The column of tiles being updated.
+     * @param kb The tile of intermediate vertices.
+     */
+    private static void relax(int[][] dist, int ib, int jb, int kb) {
+        int size = dist.length;
+        int iEnd = Math.min(size, (ib + 1) * BLOCK);
+        int jStart = jb * BLOCK;
+        int jEnd = Math.min(size, jStart + BLOCK);
+        int kEnd = Math.min(size, (kb + 1) * BLOCK);
+        for (int k = kb * BLOCK; k < kEnd; k++) {
+            int[] rowK = dist[k];
+            for (int i = ib * BLOCK; i < iEnd; i++) {
+                int[] rowI = dist[i];
+                int distanceIK = rowI[k];
+                if (distanceIK == INFINITY) {
+                    continue;
+                }
+                for (int j = jStart; j < jEnd; j++) {
+                    int distanceKJ = rowK[j];
+                    if (distanceKJ != INFINITY && distanceIK + distanceKJ < rowI[j]) {
+                        rowI[j] = distanceIK + distanceKJ;
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.pipegame.model;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The Boruvka class computes a minimum spanning forest of a CSR graph with Boruvka's algorithm. Every
+ * round finds, for each component, the cheapest edge that leaves it and joins the components through
+ * those edges, so the number of components at least halves and there are at most log V rounds.
+ *
+ * Both steps of a round are split over the threads of a ForkJoinPool:
+ *
+ * - the edges are scanned in chunks, and the cheapest edge of every component is kept in an
+ *   AtomicLongArray with the weight in the high half and the number of the edge in the low half,
+ *   lowered with compareAndSet;
+ * - the components are joined with a ConcurrentUnionFind, and an edge enters the forest when the
+ *   union through it succeeds.
+ *
+ * Ties between equal weights are broken by the number of the edge, so all the threads agree on a
+ * single cheapest edge and the edges chosen in a round can not close a cycle.
+ */
+final class Boruvka {
+
+    // elements below this number are handled by a single task
+    private static final int GRAIN = 4096;
+
+    private static final long NONE = Long.MAX_VALUE;
+
+    private final int[] edgeSource;
+    private final int[] edgeTarget;
+    private final int[] edgeWeight;
+    private final ConcurrentUnionFind components;
+    private final AtomicLongArray cheapest;
+    private final boolean[] inForest;
+
+    private Boruvka(int size, int[] edgeSource, int[] edgeTarget, int[] edgeWeight) {
+        this.edgeSource = edgeSource;
+        this.edgeTarget = edgeTarget;
+        this.edgeWeight = edgeWeight;
+        components = new ConcurrentUnionFind(size);
+        cheapest = new AtomicLongArray(size);
+        inForest = new boolean[edgeSource.length];
+    }
+
+    /**
+     * The function computes a minimum spanning forest. If the graph is not connected, every
+     * component gets its own tree.
+     *
+     * @param offsets The start of the row of every vertex in targets and weights, plus the end.
+     * @param targets The neighbors of every vertex.
+     * @param weights The weight of the edge to every neighbor.
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return Three arrays with the source, the target and the weight of every edge of the forest, in
+     * the same form as Kruskal.solve.
+     */
+    static int[][] solve(int[] offsets, int[] targets, int[] weights, int parallelism) {
+        int size = offsets.length - 1;
+        // every edge is taken once, from the row of its smaller endpoint
+        int edgeTotal = 0;
+        for (int u = 0; u < size; u++) {
+            for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                if (u < targets[position]) {
+                    edgeTotal++;
+                }
+            }
+        }
+        int[] edgeSource = new int[edgeTotal];
+        int[] edgeTarget = new int[edgeTotal];
+        int[] edgeWeight = new int[edgeTotal];
+        int count = 0;
+        for (int u = 0; u < size; u++) {
+            for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                if (u < targets[position]) {
+                    edgeSource[count] = u;
+                    edgeTarget[count] = targets[position];
+                    edgeWeight[count] = weights[position];
+                    count++;
+                }
+            }
+        }
+        Boruvka search = new Boruvka(size, edgeSource, edgeTarget, edgeWeight);
+        if (parallelism <= 1) {
+            search.run(null);
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                search.run(pool);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return search.forest();
+    }
+
+    private void run(ForkJoinPool pool) {
+        int size = cheapest.length();
+        int edgeTotal = edgeSource.length;
+        boolean joined = true;
+        while (joined) {
+            forEach(pool, size, (from, to) -> {
+                for (int u = from; u < to; u++) {
+                    cheapest.set(u, NONE);
+                }
+            });
+            forEach(pool, edgeTotal, (from, to) -> {
+                for (int edge = from; edge < to; edge++) {
+                    int rootU = components.find(edgeSource[edge]);
+                    int rootV = components.find(edgeTarget[edge]);
+                    if (rootU != rootV) {
+                        long candidate = LongHeap.pack(edgeWeight[edge], edge);
+                        lower(rootU, candidate);
+                        lower(rootV, candidate);
+                    }
+                }
+            });
+            AtomicBoolean changed = new AtomicBoolean();
+            forEach(pool, size, (from, to) -> {
+                boolean any = false;
+                for (int u = from; u < to; u++) {
+                    long best = cheapest.get(u);
+                    if (best == NONE) {
+                        continue;
+                    }
+                    int edge = LongHeap.index(best);
+                    if (components.union(edgeSource[edge], edgeTarget[edge])) {
+                        // only one of the two components that picked this edge gets here
+                        inForest[edge] = true;
+                        any = true;
+                    }
+                }
+                if (any) {
+                    changed.set(true);
+                }
+            });
+            joined = changed.get();
+        }
+    }
+
+    // The function keeps the smaller of the current cheapest edge of a component and a candidate.
+    private void lower(int root, long candidate) {
+        long current = cheapest.get(root);
+        while (candidate < current && !cheapest.compareAndSet(root, current, candidate)) {
+            current = cheapest.get(root);
+        }
+    }
+
+    private int[][] forest() {
+        int accepted = 0;
+        for (boolean edge : inForest) {
+            if (edge) {
+                accepted++;
+            }
+        }
+        int[] treeSource = new int[accepted];
+        int[] treeTarget = new int[accepted];
+        int[] treeWeight = new int[accepted];
+        int position = 0;
+        for (int edge = 0; edge < inForest.length; edge++) {
+            if (inForest[edge]) {
+                treeSource[position] = edgeSource[edge];
+                treeTarget[position] = edgeTarget[edge];
+                treeWeight[position] = edgeWeight[edge];
+                position++;
+            }
+        }
+        return new int[][]{treeSource, treeTarget, treeWeight};
+    }
+
+    /**
+     * The function runs a step over the elements 0 .. count - 1, split in chunks over the pool, or in
+     * the calling thread if there is no pool. It returns when every chunk is done, so the writes of a
+     * step are visible to the next one.
+     */
+    private static void forEach(ForkJoinPool pool, int count, Step step) {
+        if (pool == null || count <= GRAIN) {
+            step.run(0, count);
+        } else {
+            pool.invoke(new Chunk(step, 0, count));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void run(int from, int to);
+    }
+
+    /**
+     * The Chunk class is the task that runs a step over the elements from..to - 1, splitting itself
+     * in halves while there are more than GRAIN elements.
+     */
+    private static final class Chunk extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Step step;
+        private final int from;
+        private final int to;
+
+        Chunk(Step step, int from, int to) {
+            this.step = step;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                step.run(from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Chunk(step, from, middle), new Chunk(step, middle, to));
+        }
+    }
+
+    /**
+     * The ConcurrentUnionFind class is a disjoint-set forest that several threads can use at the same
+     * time. A root is only hung below another root with compareAndSet, always the one with the smaller
+     * id below the one with the bigger id, so no cycle can be formed, and find halves the paths with
+     * compareAndSet as well. A failed compareAndSet means another thread changed the tree first, and
+     * the operation is simply tried again.
+     */
+    private static final class ConcurrentUnionFind {
+
+        private final AtomicIntegerArray parent;
+
+        ConcurrentUnionFind(int count) {
+            parent = new AtomicIntegerArray(count);
+            for (int i = 0; i < count; i++) {
+                parent.set(i, i);
+            }
+        }
+
+        int find(int element) {
+            int current = parent.get(element);
+            while (current != element) {
+                int grandparent = parent.get(current);
+                parent.compareAndSet(element, current, grandparent);
+                element = grandparent;
+                current = parent.get(element);
+            }
+            return element;
+        }
+
+        boolean union(int a, int b) {
+            while (true) {
+                int rootA = find(a);
+                int rootB = find(b);
+                if (rootA == rootB) {
+                    return false;
+                }
+                if (rootA > rootB) {
+                    int swap = rootA;
+                    rootA = rootB;
+                    rootB = swap;
+                }
+                if (parent.compareAndSet(rootA, rootA, rootB)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+
+/**
+ * The BucketShortestPaths class runs Dijkstra's algorithm for graphs whose weights are small
+ * non-negative integers, replacing the binary heap by a monotone queue that fits the range of the
+ * weights:
+ *
+ * - weights 0 and 1: a double-ended queue (0-1 BFS), where an edge of weight 0 puts the vertex at
+ *   the front and an edge of weight 1 at the back;
+ * - weights up to DIAL_MAX_WEIGHT: Dial's algorithm, a circular array of maxWeight + 1 buckets,
+ *   one for each distance that can be pending at the same time;
+ * - weights up to RADIX_MAX_WEIGHT: a radix heap, 33 buckets split by the highest bit in which a key
+ *   differs from the last key removed.
+ *
+ * Every queue operation is O(1), or O(log maxWeight) amortized for the radix heap. For negative or
+ * bigger weights the graphs keep using their IndexedMinHeap. The queues do not support lowering a key,
+ * so a vertex can be queued several times and the stale entries are skipped when they come out.
+ */
+final class BucketShortestPaths implements IntAdjacency.EdgeVisitor {
+
+    static final int DIAL_MAX_WEIGHT = 255;
+    static final int RADIX_MAX_WEIGHT = 1 << 20;
+
+    private final Traversal<?> result;
+    private final MonotoneQueue queue;
+    private final boolean[] settled;
+    private final int maxWeight;
+    private int current;
+    private boolean outOfRange;
+
+    private BucketShortestPaths(Traversal<?> result, int size, int maxWeight) {
+        this.result = result;
+        this.maxWeight = maxWeight;
+        settled = new boolean[size];
+        if (maxWeight <= 1) {
+            queue = new ZeroOneDeque(size);
+        } else if (maxWeight <= DIAL_MAX_WEIGHT) {
+            queue = new DialBuckets(maxWeight);
+        } else {
+            queue = new RadixHeap();
+        }
+    }
+
+    /**
+     * The function tells if the weights of a graph are in a range the bucket queues can handle.
+     *
+     * @param minWeight The smallest weight the graph may have.
+     * @param maxWeight The biggest weight the graph may have.
+     * @return true if no weight is negative or bigger than RADIX_MAX_WEIGHT.
+     */
+    static boolean accepts(int minWeight, int maxWeight) {
+        return minWeight >= 0 && maxWeight <= RADIX_MAX_WEIGHT;
+    }
+
+    /**
+     * The function fills a Traversal with the shortest distances from a vertex.
+     *
+     * @param result An empty Traversal for the ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @param start The id of the source vertex.
+     * @param end The id where the search can stop, or Traversal.NO_VERTEX to settle every reachable
+     * vertex.
+     * @param maxWeight A bound of the weights of the graph, accepted by accepts().
+     * @return false if an edge outside of 0 .. maxWeight was found. The result is then incomplete and
+     * the caller has to run its heap version.
+     */
+    static boolean run(Traversal<?> result, IntAdjacency adjacency, int start, int end, int maxWeight) {
+        BucketShortestPaths search = new BucketShortestPaths(result, result.distance.length, maxWeight);
+        return search.run(adjacency, start, end);
+    }
+
+    private boolean run(IntAdjacency adjacency, int start, int end) {
+        result.distance[start] = 0;
+        queue.push(start, 0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            if (settled[u] || queue.lastKey() != result.distance[u]) {
+                continue;
+            }
+            settled[u] = true;
+            result.settle(u);
+            if (u == end) {
+                break;
+            }
+            current = u;
+            adjacency.forEachEdge(u, this);
+            if (outOfRange) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void visit(int neighbor, int weight) {
+        if (weight < 0 || weight > maxWeight) {
+            outOfRange = true;
+            return;
+        }
+        int newDistance = result.distance[current] + weight;
+        if (!settled[neighbor] && newDistance < result.distance[neighbor]) {
+            result.distance[neighbor] = newDistance;
+            result.predecessor[neighbor] = current;
+            queue.push(neighbor, newDistance);
+        }
+    }
+
+    /**
+     * The MonotoneQueue interface is a priority queue where no key pushed is smaller than the last key
+     * removed, which is always the case in Dijkstra's algorithm.
+     */
+    private interface MonotoneQueue {
+        void push(int id, int key);
+
+        int poll();
+
+        int lastKey();
+
+        boolean isEmpty();
+    }
+
+    /**
+     * The ZeroOneDeque class is the queue of the 0-1 BFS: a circular array where the keys are always
+     * the last key removed, at the front, or that key plus one, at the back.
+     */
+    private static final class ZeroOneDeque implements MonotoneQueue {
+
+        private int[] ids;
+        private int[] keys;
+        private int head;
+        private int size;
+        private int last;
+
+        ZeroOneDeque(int capacity) {
+            ids = new int[Math.max(16, capacity)];
+            keys = new int[ids.length];
+        }
+
+        @Override
+        public void push(int id, int key) {
+            if (size == ids.length) {
+                grow();
+            }
+            int index;
+            if (key == last) {
+                head = (head - 1 + ids.length) % ids.length;
+                index = head;
+            } else {
+                index = (head + size) % ids.length;
+            }
+            ids[index] = id;
+            keys[index] = key;
+            size++;
+        }
+
+        @Override
+        public int poll() {
+            int id = ids[head];
+            last = keys[head];
+            head = (head + 1) % ids.length;
+            size--;
+            return id;
+        }
+
+        @Override
+        public int lastKey() {
+            return last;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        private void grow() {
+            int[] newIds = new int[ids.length * 2];
+            int[] newKeys = new int[ids.length * 2];
+            for (int i = 0; i < size; i++) {
+                newIds[i] = ids[(head + i) % ids.length];
+                newKeys[i] = keys[(head + i) % ids.length];
+            }
+            ids = newIds;
+            keys = newKeys;
+            head = 0;
+        }
+    }
+
+    /**
+     * The DialBuckets class keeps one bucket for each of the maxWeight + 1 distances that can be
+     * pending at the same time. The bucket of a distance is distance % (maxWeight + 1), and the queue
+     * removes from the bucket of the current distance until it is empty before moving to the next.
+     */
+    private static final class DialBuckets implements MonotoneQueue {
+
+        private final int[][] buckets;
+        private final int[] bucketSizes;
+        private int cursor;
+        private int size;
+
+        DialBuckets(int maxWeight) {
+            buckets = new int[maxWeight + 1][];
+            bucketSizes = new int[maxWeight + 1];
+        }
+
+        @Override
+        public void push(int id, int key) {
+            int bucket = key % buckets.length;
+            if (buckets[bucket] == null) {
+                buckets[bucket] = new int[4];
+            } else if (bucketSizes[bucket] == buckets[bucket].length) {
+                buckets[bucket] = Arrays.copyOf(buckets[bucket], bucketSizes[bucket] * 2);
+            }
+            buckets[bucket][bucketSizes[bucket]++] = id;
+            size++;
+        }
+
+        @Override
+        public int poll() {
+            while (bucketSizes[cursor % buckets.length] == 0) {
+                cursor++;
+            }
+            int bucket = cursor % buckets.length;
+            size--;
+            return buckets[bucket][--bucketSizes[bucket]];
+        }
+
+        @Override
+        public int lastKey() {
+            return cursor;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+    }
+
+    /**
+     * The RadixHeap class keeps the entries in 33 buckets: bucket 0 holds the keys equal to the last
+     * key removed and bucket i the keys whose highest bit different from it is the bit i - 1. When
+     * bucket 0 is empty, the smallest key of the first bucket that is not empty becomes the last key
+     * and the entries of that bucket are spread again over the buckets below it.
+     */
+    private static final class RadixHeap implements MonotoneQueue {
+
+        private final int[][] ids = new int[33][];
+        private final int[][] keys = new int[33][];
+        private final int[] bucketSizes = new int[33];
+        private int last;
+        private int size;
+
+        @Override
+        public void push(int id, int key) {
+            add(bucketOf(key), id, key);
+            size++;
+        }
+
+        @Override
+        public int poll() {
+            if (bucketSizes[0] == 0) {
+                int bucket = 1;
+                while (bucketSizes[bucket] == 0) {
+                    bucket++;
+                }
+                int[] bucketIds = ids[bucket];
+                int[] bucketKeys = keys[bucket];
+                int count = bucketSizes[bucket];
+                int smallest = Integer.MAX_VALUE;
+                for (int i = 0; i < count; i++) {
+                    smallest = Math.min(smallest, bucketKeys[i]);
+                }
+                last = smallest;
+                bucketSizes[bucket] = 0;
+                for (int i = 0; i < count; i++) {
+                    add(bucketOf(bucketKeys[i]), bucketIds[i], bucketKeys[i]);
+                }
+            }
+            size--;
+            return ids[0][--bucketSizes[0]];
+        }
+
+        @Override
+        public int lastKey() {
+            return last;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        private int bucketOf(int key) {
+            return key == last ? 0 : 32 - Integer.numberOfLeadingZeros(key ^ last);
+        }
+
+        private void add(int bucket, int id, int key) {
+            if (ids[bucket] == null) {
+                ids[bucket] = new int[4];
+                keys[bucket] = new int[4];
+            } else if (bucketSizes[bucket] == ids[bucket].length) {
+                ids[bucket] = Arrays.copyOf(ids[bucket], bucketSizes[bucket] * 2);
+                keys[bucket] = Arrays.copyOf(keys[bucket], bucketSizes[bucket] * 2);
+            }
+            ids[bucket][bucketSizes[bucket]] = id;
+            keys[bucket][bucketSizes[bucket]] = key;
+            bucketSizes[bucket]++;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.pipegame.model;
+
+import java.util.HashSet;
+
+/**
+ * The ConnectivityIndex class keeps the connected components of a graph up to date while its edges
+ * change, so asking if two vertices are connected is a pair of find operations instead of a search.
+ *
+ * The components live in a UnionFind. Every edge added joins the components of its endpoints, and
+ * the edges whose union succeeded are remembered: they form a spanning forest of the graph. Removing
+ * an edge outside of that forest can not split a component, so it costs nothing. Removing an edge of
+ * the forest, or a vertex, marks the index as stale, and the components are computed again from the
+ * edges of the graph at the next query. Removing every edge resets the index to one component for
+ * each vertex without reading the graph.
+ *
+ * This fits how the game uses its graphs: the edges are cleared, added back and queried, and
+ * removals are rare.
+ */
+final class ConnectivityIndex {
+
+    private UnionFind components;
+    private final HashSet<Long> forestEdges = new HashSet<>();
+    private boolean stale;
+
+    /**
+     * The constructor builds the index from the current edges of a graph.
+     *
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     */
+    ConnectivityIndex(int size, IntAdjacency adjacency) {
+        rebuild(size, adjacency);
+    }
+
+    /**
+     * The function registers a new id, the next one after the last id of the graph.
+     */
+    void vertexAdded() {
+        if (!stale) {
+            components.add();
+        }
+    }
+
+    /**
+     * The function registers that a vertex was removed or that the ids were renumbered.
+     */
+    void vertexRemoved() {
+        stale = true;
+    }
+
+    /**
+     * The function registers a new edge. An edge that already existed changes nothing.
+     *
+     * @param source The id of one endpoint.
+     * @param destination The id of the other endpoint.
+     */
+    void edgeAdded(int source, int destination) {
+        if (!stale && components.union(source, destination)) {
+            forestEdges.add(key(source, destination));
+        }
+    }
+
+    /**
+     * The function registers that an edge was removed.
+     *
+     * @param source The id of one endpoint.
+     * @param destination The id of the other endpoint.
+     */
+    void edgeRemoved(int source, int destination) {
+        if (!stale && forestEdges.remove(key(source, destination))) {
+            stale = true;
+        }
+    }
+
+    /**
+     * The function registers that every edge of the graph was removed.
+     *
+     * @param size The number of ids of the graph.
+     */
+    void edgesCleared(int size) {
+        components = new UnionFind(size);
+        forestEdges.clear();
+        stale = false;
+    }
+
+    /**
+     * The function tells if two vertices are in the same component, computing the components again
+     * first if the index is stale.
+     *
+     * @param a The id of the first vertex.
+     * @param b The id of the second vertex.
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @return true if there is a path between them.
+     */
+    boolean connected(int a, int b, int size, IntAdjacency adjacency) {
+        if (stale) {
+            rebuild(size, adjacency);
+        }
+        return components.connected(a, b);
+    }
+
+    private void rebuild(int size, IntAdjacency adjacency) {
+        edgesCleared(size);
+        for (int u = 0; u < size; u++) {
+            int source = u;
+            adjacency.forEachEdge(u, (neighbor, weight) -> {
+                if (source < neighbor) {
+                    edgeAdded(source, neighbor);
+                }
+            });
+        }
+    }
+
+    private static long key(int source, int destination) {
+        return ((long) Math.min(source, destination) << 32) | Math.max(source, destination);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+
+/**
+ * The DfsStack class is the explicit stack of the iterative depth-first searches. Every entry is a
+ * vertex id and a cursor that tells where the scan of its neighbors has to continue, so a search can
+ * go as deep as the graph without using the thread stack.
+ *
+ * There is one DfsStack per thread, kept between calls: repeated searches reuse its arrays instead
+ * of allocating new ones, and searches running on different threads do not share it.
+ */
+final class DfsStack {
+
+    private static final ThreadLocal<DfsStack> STACKS = ThreadLocal.withInitial(DfsStack::new);
+
+    private int[] vertices;
+    private int[] cursors;
+    private int size;
+
+    private DfsStack() {
+        vertices = new int[16];
+        cursors = new int[16];
+        size = 0;
+    }
+
+    /**
+     * The function returns the empty stack of the current thread, with room for the given number of
+     * entries.
+     *
+     * @param capacity The deepest the search can go, normally the number of vertices.
+     * @return The stack of the current thread.
+     */
+    static DfsStack acquire(int capacity) {
+        DfsStack stack = STACKS.get();
+        stack.size = 0;
+        if (stack.vertices.length < capacity) {
+            int length = Math.max(capacity, stack.vertices.length * 2);
+            stack.vertices = Arrays.copyOf(stack.vertices, length);
+            stack.cursors = Arrays.copyOf(stack.cursors, length);
+        }
+        return stack;
+    }
+
+    void push(int vertex, int cursor) {
+        vertices[size] = vertex;
+        cursors[size] = cursor;
+        size++;
+    }
+
+    void pop() {
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int depth() {
+        return size;
+    }
+
+    int topVertex() {
+        return vertices[size - 1];
+    }
+
+    int topCursor() {
+        return cursors[size - 1];
+    }
+
+    void setTopCursor(int cursor) {
+        cursors[size - 1] = cursor;
+    }
+}
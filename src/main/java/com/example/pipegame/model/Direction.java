@@ -9,4 +9,18 @@ public enum Direction {
     DOWN,
     RIGHT,
     LEFT;
+
+    /**
+     * The function returns the direction that points the other way.
+     *
+     * @return The opposite direction.
+     */
+    public Direction opposite() {
+        switch (this) {
+            case UP -> {return DOWN;}
+            case DOWN -> {return UP;}
+            case RIGHT -> {return LEFT;}
+            default -> {return RIGHT;}
+        }
+    }
 }
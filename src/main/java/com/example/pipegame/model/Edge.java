@@ -56,6 +56,16 @@ public class Edge<T> {
         this.destination = destination;
     }
 
+    /**
+     * The function returns the vertex at the other end of the edge.
+     *
+     * @param vertex One of the two vertices of the edge.
+     * @return The destination if the given vertex is the source, otherwise the source.
+     */
+    public Vertex<T> getOpposite(Vertex<T> vertex) {
+        return source == vertex ? destination : source;
+    }
+
     // The `getWeight()` method in the `Edge` class is a getter method that returns the weight of the
     // edge. It retrieves the value of the `weight` variable and returns it as an integer.
     public int getWeight() {
@@ -2,20 +2,29 @@ package com.example.pipegame.model;
 import com.example.exception.GraphException;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
 public class GraphAdjacentyList<T> implements IGraph<T> {
 
     private ArrayList<Vertex<T>> vertices;
-    private ArrayList<Edge<T>> edges;
-    private int time;
+    private final VertexIndex<T> vertexIndex;
+    // bounds of the weights of the edges, used to pick the Dijkstra queue; they are recomputed before
+    // the next search once an edge with one of the bound weights is removed or overwritten
+    private int minWeight;
+    private int maxWeight;
+    private boolean weightBoundsStale;
+    // the components of the graph, kept up to date by the edge operations once it is enabled
+    private ConnectivityIndex connectivity;
 
     // The above code is defining a constructor for a class called GraphAdjacencyList. It initializes
-    // an empty ArrayList called edges and an empty ArrayList called vertices. It also initializes a
-    // variable called time to 0.
+    // an empty ArrayList called vertices and the index used to find the vertices in constant time. The
+    // edges are not kept in a global list: every vertex owns its incident edges.
     public GraphAdjacentyList() {
-        edges = new ArrayList<>();
         vertices = new ArrayList<>();
-        time = 0;
+        vertexIndex = new VertexIndex<>();
+        minWeight = 0;
+        maxWeight = 0;
     }
 
     /**
@@ -26,22 +35,20 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      */
     @Override
     public void addVertex(Vertex<T> vertex) {
+        vertexIndex.add(vertex, vertices.size());
         vertices.add(vertex);
+        if (connectivity != null) {
+            connectivity.vertexAdded();
+        }
     }
 
     @Override
     // The above code is a method in a Java class that is used to find a vertex in a graph based on its
-    // data. It takes a parameter "data" which represents the data of the vertex to be found. It
-    // iterates through the list of vertices in the graph and checks if the data of each vertex is
-    // equal to the given data. If a match is found, the method returns the vertex. If no match is
-    // found, it returns null.
+    // data. It takes a parameter "data" which represents the data of the vertex to be found. The
+    // vertex is resolved through the hash index of the graph, so the lookup takes constant time. If no
+    // match is found, it returns null.
     public Vertex<T> findVertex(T data) {
-        for (Vertex<T> vertex : vertices) {
-            if (vertex.getData().equals(data)) {
-                return vertex;
-            }
-        }
-        return null;
+        return vertexIndex.find(data);
     }
 
     /**
@@ -53,19 +60,34 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      */
     @Override
     public void removeVertex(Vertex<T> vertex) throws GraphException{
-        if (!vertices.contains(vertex)) {
+        if (!vertexIndex.contains(vertex)) {
             throw new GraphException("The vertex is not in the graph.");
         }
         // delete the vertex and all associated edges
-        vertices.remove(vertex);
-        edges.removeIf(edge -> edge.getSource().equals(vertex) || edge.getDestination().equals(vertex));
-        for (Vertex<T> v : vertices) {
-            v.removeNeighbor(vertex);
+        int vertexPosition = vertexIndex.indexOf(vertex);
+        vertices.remove(vertexPosition);
+        vertexIndex.remove(vertex);
+        vertexIndex.reindex(vertices, vertexPosition);
+        // only the neighbors of the vertex can hold a reference to it; a self-loop is dropped by
+        // clearIncidentEdges, detaching it here would change the map being iterated
+        for (Edge<T> edge : vertex.getIncidentEdges()) {
+            weightRemoved(edge.getWeight());
+            Vertex<T> neighbor = edge.getOpposite(vertex);
+            if (neighbor != vertex) {
+                neighbor.detachEdge(vertex);
+                neighbor.removeNeighbor(vertex);
+            }
+        }
+        vertex.clearIncidentEdges();
+        if (connectivity != null) {
+            connectivity.vertexRemoved();
         }
     }
 
     /**
-     * The addEdge function adds an edge between two vertices in a graph, with a specified weight.
+     * The addEdge function adds an edge between two vertices in a graph, with a specified weight. The
+     * edge is attached to both vertices; if they were already connected, the weight of the existing
+     * edge is updated instead of adding a parallel one.
      * 
      * @param source The source parameter represents the starting vertex of the edge. It is of type
      * Vertex<T>, where T is the type of data stored in the vertex.
@@ -77,13 +99,27 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      */
     @Override
     public void addEdge(Vertex<T> source, Vertex<T> destination, int weight) throws GraphException{
-        if (!vertices.contains(source) || !vertices.contains(destination)) {
+        if (!vertexIndex.contains(source) || !vertexIndex.contains(destination)) {
             throw new GraphException("The vertices must be in the graph.");
         }
-        source.addNeighbor(destination);
-        destination.addNeighbor(source);
+        minWeight = Math.min(minWeight, weight);
+        maxWeight = Math.max(maxWeight, weight);
+        Edge<T> existingEdge = source.getIncidentEdge(destination);
+        if (existingEdge != null) {
+            weightRemoved(existingEdge.getWeight());
+            existingEdge.setWeight(weight);
+            return;
+        }
         Edge<T> edge = new Edge<>(source, destination, weight);
-        edges.add(edge);
+        source.addNeighbor(destination);
+        source.attachEdge(destination, edge);
+        if (source != destination) {
+            destination.addNeighbor(source);
+            destination.attachEdge(source, edge);
+        }
+        if (connectivity != null) {
+            connectivity.edgeAdded(vertexIndex.indexOf(source), vertexIndex.indexOf(destination));
+        }
     }
 
     /**
@@ -96,20 +132,28 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      */
     @Override
     public void removeEdge(Vertex<T> source, Vertex<T> destination) throws GraphException{
-        if (!vertices.contains(source) || !vertices.contains(destination)) {
+        if (!vertexIndex.contains(source) || !vertexIndex.contains(destination)) {
             throw new GraphException("The vertices must be in the graph.");
         }
+        Edge<T> edge = source.getIncidentEdge(destination);
+        if (edge != null) {
+            weightRemoved(edge.getWeight());
+        }
         source.removeNeighbor(destination);
-        destination.removeNeighbor(source);
-        Edge<T> edgeToRemove = findEdge(source, destination);
-        if (edgeToRemove != null) {
-            edges.remove(edgeToRemove);
+        source.detachEdge(destination);
+        if (source != destination) {
+            destination.removeNeighbor(source);
+            destination.detachEdge(source);
+        }
+        if (connectivity != null) {
+            connectivity.edgeRemoved(vertexIndex.indexOf(source), vertexIndex.indexOf(destination));
         }
     }
 
     /**
      * The function performs a depth-first search starting from a given source vertex and returns the
-     * order in which the vertices were visited.
+     * order in which the vertices were visited. The discovery and finish times are left on the
+     * vertices.
      * 
      * @param source The source parameter is the starting vertex for the Depth First Search (DFS)
      * algorithm. It is the vertex from which the DFS traversal will begin.
@@ -117,43 +161,62 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      */
     @Override
     public ArrayList<Vertex<T>> dfs(Vertex<T> source) {
-        ArrayList<Vertex<T>> dfsOrder = new ArrayList<>();
-        if (vertices.size() > 0) {
-            for (Vertex<T> v : vertices) {
-                v.setColor(Color.WHITE);
-            }
-            time = 0;
-            dfs(source, dfsOrder);
+        if (vertices.isEmpty()) {
+            return new ArrayList<>();
         }
-        return dfsOrder;
+        Traversal<T> result = dfsTraversal(source);
+        result.publish();
+        return result.getOrder();
     }
 
-   /**
-    * The function performs a depth-first search on a graph, keeping track of the discovery and finish
-    * times of each vertex.
-    * 
-    * @param v The parameter "v" is of type Vertex<T>, which represents a vertex in a graph.
-    * @param dfsOrder The dfsOrder parameter is an ArrayList that will store the vertices in the order
-    * they are visited during the depth-first search traversal.
-    */
-    private void dfs(Vertex<T> v, ArrayList<Vertex<T>> dfsOrder) {
-        time += 1;
-        v.setDiscoveryTime(time);
-        v.setColor(Color.GRAY);
-        dfsOrder.add(v);
-        for (Vertex<T> u : v.getNeighbors()) {
-            if (u.getColor() == Color.WHITE) {
-                dfs(u, dfsOrder);
+    /**
+     * The function performs a depth-first search without touching the vertices. The state of the
+     * search lives in the returned Traversal, indexed by the position of every vertex. The search is
+     * iterative: the DfsStack of the thread keeps every open vertex with the position of the next
+     * neighbor to look at, so the order and the discovery and finish times are the ones of the
+     * recursive algorithm, but the depth of the graph is not limited by the thread stack.
+     *
+     * @param source The vertex from which the DFS traversal will begin.
+     * @return A Traversal with the order, the discovery and finish times and the DFS tree.
+     */
+    @Override
+    public Traversal<T> dfsTraversal(Vertex<T> source) {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, true);
+        int start = indexOfVertex(source);
+        DfsStack stack = DfsStack.acquire(vertices.size());
+
+        result.reach(start, Traversal.NO_VERTEX, 0);
+        result.discoveryTime[start] = ++result.clock;
+        stack.push(start, 0);
+        while (!stack.isEmpty()) {
+            int u = stack.topVertex();
+            // the neighbor list follows the order of the incident edges and can be read by position
+            ArrayList<Vertex<T>> neighbors = vertices.get(u).getNeighbors();
+            int cursor = stack.topCursor();
+            int v = Traversal.NO_VERTEX;
+            while (cursor < neighbors.size() && v == Traversal.NO_VERTEX) {
+                int candidate = vertexIndex.indexOf(neighbors.get(cursor++));
+                if (!result.isReached(candidate)) {
+                    v = candidate;
+                }
+            }
+            if (v != Traversal.NO_VERTEX) {
+                stack.setTopCursor(cursor);
+                result.reach(v, u, stack.depth());
+                result.discoveryTime[v] = ++result.clock;
+                stack.push(v, 0);
+            } else {
+                result.finishTime[u] = ++result.clock;
+                stack.pop();
             }
         }
-        v.setColor(Color.BLACK);
-        time += 1;
-        v.setFinishTime(time);
+        return result;
     }
 
    /**
     * The function performs a breadth-first search (BFS) on a graph starting from a given source vertex
-    * and returns the order in which the vertices are visited.
+    * and returns the order in which the vertices are visited. The color, distance and predecessor
+    * are left on the vertices.
     * 
     * @param source The source parameter is the starting vertex for the breadth-first search algorithm.
     * It is the vertex from which the search will begin and explore its neighbors.
@@ -162,90 +225,263 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
     */
     @Override
     public ArrayList<Vertex<T>> bfs(Vertex<T> source) {
-        ArrayList<Vertex<T>> bfsOrder = new ArrayList<>();
-
-        for (Vertex<T> u : vertices) {
-            u.setColor(Color.WHITE);
-            u.setDistance(Integer.MAX_VALUE);
-            u.setPredecessor(null);
-        }
-
-        // initialization of the source vertex
-        source.setColor(Color.GRAY);
-        source.setDistance(0);
-        source.setPredecessor(null);
-
-        // queue to take the BFS route
-        Queue<Vertex<T>> queue = new LinkedList<>();
-        queue.offer(source);
-
-        while (!queue.isEmpty()) {
-            Vertex<T> u = queue.poll();
-            bfsOrder.add(u); // add vertex to BFS result
-            // iteration over the neighbors of the current vertex.
-            for (Vertex<T> v : u.getNeighbors()) {
-                if (v.getColor() == Color.WHITE) {
-                    v.setColor(Color.GRAY);
-                    v.setDistance(u.getDistance() + 1);
-                    v.setPredecessor(u);
-                    queue.offer(v);
+        Traversal<T> result = bfsTraversal(source);
+        result.publish();
+        return result.getOrder();
+    }
+
+    /**
+     * The function performs a breadth-first search without touching the vertices. The order array of
+     * the Traversal is also the queue of the search.
+     *
+     * @param source The vertex from which the search will begin.
+     * @return A Traversal with the order, the distances and the BFS tree.
+     */
+    @Override
+    public Traversal<T> bfsTraversal(Vertex<T> source) {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+        result.reach(indexOfVertex(source), Traversal.NO_VERTEX, 0);
+        for (int head = 0; head < result.count; head++) {
+            int u = result.order[head];
+            Vertex<T> uVertex = vertices.get(u);
+            for (Edge<T> edge : uVertex.getIncidentEdges()) {
+                int v = vertexIndex.indexOf(edge.getOpposite(uVertex));
+                if (!result.isReached(v)) {
+                    result.reach(v, u, result.distance[u] + 1);
                 }
             }
-            u.setColor(Color.BLACK);
         }
+        return result;
+    }
 
-        return bfsOrder;
+    /**
+     * The function returns the vertices of a breadth-first search as a lazy stream: the graph is only
+     * expanded as the stream is consumed, so a search that stops at a target does not visit the rest
+     * of the graph. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as bfs.
+     */
+    @Override
+    public Stream<Vertex<T>> bfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.bfs(vertices.size(), this::forEachEdge, vertices::get, indexOfVertex(startVertex));
+    }
+
+    /**
+     * The function returns the vertices of a depth-first search as a lazy stream, in the order they
+     * are discovered. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as dfs.
+     */
+    @Override
+    public Stream<Vertex<T>> dfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.dfs(vertices.size(), this::forEachEdge, vertices::get, indexOfVertex(startVertex));
     }
 
     /**
      * The function implements Dijkstra's algorithm to find the shortest path between a source vertex
-     * and a destination vertex in a graph.
+     * and a destination vertex in a graph. The search stops as soon as the destination is settled.
      * 
      * @param source The source parameter is the starting vertex from which the Dijkstra's algorithm
      * will find the shortest path.
      * @param destination The destination parameter is the vertex that you want to find the shortest
      * path to from the source vertex.
      * @return The method is returning an ArrayList of Vertex objects, representing the shortest path
-     * from the source vertex to the destination vertex.
+     * from the destination vertex back to the source vertex.
      */
     @Override
     public ArrayList<Vertex<T>> dijkstra(Vertex<T> source, Vertex<T> destination) {
-        Map<Vertex<T>, Integer> distances = new HashMap<>();
-        Map<Vertex<T>, Vertex<T>> previousVertices = new HashMap<>();
-        Set<Vertex<T>> S = new HashSet<>();
-        PriorityQueue<Vertex<T>> priorityQueue = new PriorityQueue<>(Comparator.comparingInt(distances::get));
-        for (Vertex<T> vertex : vertices) {
-            distances.put(vertex, Integer.MAX_VALUE);
+        int start = vertexIndex.indexOf(source);
+        int end = vertexIndex.indexOf(destination);
+        if (start == -1 || end == -1) {
+            ArrayList<Vertex<T>> shortestPath = new ArrayList<>();
+            shortestPath.add(destination);
+            return shortestPath;
+        }
+        return dijkstra(start, end, null).pathTo(destination);
+    }
+
+    /**
+     * The function finds the shortest path between two vertices with the A* algorithm: the vertices
+     * are settled in order of their distance from the start plus the estimate of the heuristic to the
+     * goal, so the search heads towards the goal instead of growing in every direction.
+     *
+     * @param start The vertex from which the shortest path starts.
+     * @param goal The vertex where the shortest path ends.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return An ArrayList with the shortest path, from the goal back to the start, like dijkstra.
+     */
+    @Override
+    public ArrayList<Vertex<T>> aStar(Vertex<T> start, Vertex<T> goal, Heuristic<T> heuristic) {
+        int startIndex = vertexIndex.indexOf(start);
+        int goalIndex = vertexIndex.indexOf(goal);
+        if (startIndex == -1 || goalIndex == -1) {
+            ArrayList<Vertex<T>> shortestPath = new ArrayList<>();
+            shortestPath.add(goal);
+            return shortestPath;
+        }
+        return dijkstra(startIndex, goalIndex, heuristic).pathTo(goal);
+    }
+
+    /**
+     * The function tells if there is a path between two vertices, with a breadth-first search that
+     * stops as soon as the target is seen. The vertices are not modified.
+     *
+     * @param source The vertex where the search begins.
+     * @param target The vertex searched.
+     * @return true if the target can be reached from the source.
+     */
+    @Override
+    public boolean isReachable(Vertex<T> source, Vertex<T> target) {
+        return Reachability.test(vertices.size(), this::forEachEdge, indexOfVertex(source), indexOfVertex(target));
+    }
+
+    /**
+     * The function starts keeping the connected components of the graph up to date on every change
+     * of its edges, so connected can answer without a search. Calling it again has no effect.
+     */
+    @Override
+    public void enableConnectivityIndex() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex(vertices.size(), this::forEachEdge);
         }
-        distances.put(source, 0);
-        priorityQueue.add(source);
+    }
+
+    /**
+     * The function tells if there is a path between two vertices. With the connectivity index enabled
+     * the answer comes from the index, otherwise it is the same as isReachable.
+     *
+     * @param a The first vertex.
+     * @param b The second vertex.
+     * @return true if the vertices are in the same component.
+     */
+    @Override
+    public boolean connected(Vertex<T> a, Vertex<T> b) {
+        if (connectivity == null) {
+            return isReachable(a, b);
+        }
+        return connectivity.connected(indexOfVertex(a), indexOfVertex(b), vertices.size(), this::forEachEdge);
+    }
+
+    /**
+     * The function finds a path with the fewest edges between two vertices, searching from both of
+     * them at once and stopping when the two searches meet.
+     *
+     * @param source The vertex where the path starts.
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the path, from the target back to the source, like dijkstra. If the
+     * target can not be reached, only the target.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalBfs(Vertex<T> source, Vertex<T> target) {
+        int start = vertexIndex.indexOf(source);
+        int end = vertexIndex.indexOf(target);
+        if (start == -1 || end == -1) {
+            ArrayList<Vertex<T>> path = new ArrayList<>();
+            path.add(target);
+            return path;
+        }
+        return toVertices(BidirectionalSearch.bfs(vertices.size(), this::forEachEdge, start, end));
+    }
+
+    /**
+     * The function finds the shortest path between two vertices with a Dijkstra search from each of
+     * them, stopping when no path shorter than the best one where they met can be found.
+     *
+     * @param source The vertex where the path starts.
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the shortest path, from the target back to the source, like dijkstra.
+     * If the target can not be reached, only the target.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalDijkstra(Vertex<T> source, Vertex<T> target) {
+        int start = vertexIndex.indexOf(source);
+        int end = vertexIndex.indexOf(target);
+        if (start == -1 || end == -1) {
+            ArrayList<Vertex<T>> path = new ArrayList<>();
+            path.add(target);
+            return path;
+        }
+        return toVertices(BidirectionalSearch.dijkstra(vertices.size(), this::forEachEdge, start, end));
+    }
+
+    /**
+     * The function runs the A* algorithm between two vertices without touching them.
+     *
+     * @param start The vertex from which the shortest path starts.
+     * @param goal The vertex where the search stops.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return A Traversal with the vertices in the order they were settled, their distances and the
+     * predecessors of the path.
+     */
+    @Override
+    public Traversal<T> aStarTraversal(Vertex<T> start, Vertex<T> goal, Heuristic<T> heuristic) {
+        return dijkstra(indexOfVertex(start), indexOfVertex(goal), heuristic);
+    }
 
-        while (!priorityQueue.isEmpty()) {
-            Vertex<T> u = priorityQueue.poll();
-            S.add(u);
-            if (u.equals(destination)) {
+    /**
+     * The function computes the shortest distance from a vertex to every other one with Dijkstra's
+     * algorithm, without touching the vertices.
+     *
+     * @param source The vertex from which the shortest paths start.
+     * @return A Traversal with the vertices in the order they were settled, their distances and the
+     * shortest path tree.
+     */
+    @Override
+    public Traversal<T> dijkstraTraversal(Vertex<T> source) {
+        return dijkstra(indexOfVertex(source), Traversal.NO_VERTEX, null);
+    }
+
+    /**
+     * The function runs Dijkstra's algorithm over vertex positions. The priority queue is an
+     * IndexedMinHeap, so every vertex is queued once and an improved distance lowers its key in
+     * place. With a heuristic, the key of a vertex also adds its estimate to the end vertex, which
+     * turns the search into A*. Without one, and when the weights are small non-negative integers,
+     * the search runs on the bucket queues of BucketShortestPaths instead of the heap.
+     *
+     * @param start The position of the source vertex.
+     * @param end The position where the search can stop, or Traversal.NO_VERTEX to settle every
+     * reachable vertex.
+     * @param heuristic The estimate to the end vertex, or null for plain Dijkstra.
+     * @return The Traversal with the distances and the shortest path tree.
+     */
+    private Traversal<T> dijkstra(int start, int end, Heuristic<T> heuristic) {
+        if (heuristic == null) {
+            refreshWeightBounds();
+        }
+        if (heuristic == null && BucketShortestPaths.accepts(minWeight, maxWeight)) {
+            Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+            if (BucketShortestPaths.run(result, this::forEachEdge, start, end, maxWeight)) {
+                return result;
+            }
+        }
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+        T goal = heuristic == null ? null : vertices.get(end).getData();
+        boolean[] settled = new boolean[vertices.size()];
+        IndexedMinHeap heap = new IndexedMinHeap(vertices.size());
+        result.distance[start] = 0;
+        heap.push(start, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled[u] = true;
+            result.settle(u);
+            if (u == end) {
                 break;
             }
-
-            for (Edge<T> edge : getEdges(u)) {
-                Vertex<T> v = edge.getDestination();
-                int newDistance = distances.get(u) + edge.getWeight();
-                if (!S.contains(v) && newDistance < distances.get(v)) {
-                    distances.put(v, newDistance);
-                    previousVertices.put(v, u);
-                    priorityQueue.add(v);
+            Vertex<T> uVertex = vertices.get(u);
+            for (Edge<T> edge : uVertex.getIncidentEdges()) {
+                int v = vertexIndex.indexOf(edge.getOpposite(uVertex));
+                int newDistance = result.distance[u] + edge.getWeight();
+                if (!settled[v] && newDistance < result.distance[v]) {
+                    result.distance[v] = newDistance;
+                    result.predecessor[v] = u;
+                    heap.push(v, heuristic == null ? newDistance
+                            : newDistance + heuristic.estimate(vertices.get(v).getData(), goal));
                 }
             }
         }
-
-        // reconstructing the path from the destination to the source
-        ArrayList<Vertex<T>> shortestPath = new ArrayList<>();
-        Vertex<T> currentVertex = destination;
-        while (currentVertex != null) {
-            shortestPath.add(currentVertex);
-            currentVertex = previousVertices.get(currentVertex);
-        }
-        return shortestPath;
+        return result;
     }
 
     /**
@@ -257,81 +493,93 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      */
     @Override
     public int[][] floydWarshall() {
+        return floydWarshall(ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * The function runs the blocked Floyd-Warshall algorithm with the given number of threads. The
+     * matrix is initialized from the edges each vertex owns.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable.
+     */
+    @Override
+    public int[][] floydWarshall(int parallelism) {
         int size = vertices.size();
         int[][] dist = new int[size][size];
 
-        // initialize dist matrix with edge weights
+        // initialize dist matrix with edge weights, reading only the edges each vertex owns
         for (int i = 0; i < size; i++) {
-            for (int j = 0; j < size; j++) {
-                if (i == j) {
-                    dist[i][j] = 0;
-                } else {
-                    Edge<T> edge = findEdge(vertices.get(i), vertices.get(j));
-                    dist[i][j] = (edge != null) ? edge.getWeight() : Integer.MAX_VALUE;
-                }
+            Arrays.fill(dist[i], Integer.MAX_VALUE);
+            for (Edge<T> edge : vertices.get(i).getIncidentEdges()) {
+                int j = vertexIndex.indexOf(edge.getOpposite(vertices.get(i)));
+                dist[i][j] = edge.getWeight();
             }
+            dist[i][i] = 0;
         }
 
-        // apply Floyd-Warshall algorithm
-        for (int k = 0; k < size; k++) {
-            for (int i = 0; i < size; i++) {
-                for (int j = 0; j < size; j++) {
-                    if (dist[i][k] != Integer.MAX_VALUE && dist[k][j] != Integer.MAX_VALUE
-                            && dist[i][k] + dist[k][j] < dist[i][j]) {
-                        dist[i][j] = dist[i][k] + dist[k][j];
-                    }
-                }
-            }
-        }
+        return BlockedFloydWarshall.solve(dist, parallelism);
+    }
 
-        return dist;
+    /**
+     * The function computes the shortest distance between all pairs of vertices on the CSR snapshot
+     * of the graph, which picks between Floyd-Warshall and one Dijkstra per vertex.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable.
+     */
+    @Override
+    public int[][] allPairsShortestPaths(int parallelism) {
+        return freeze().allPairsShortestPaths(parallelism);
     }
 
 
+    /**
+     * The function builds a minimum spanning tree with Prim's algorithm. If the graph is not
+     * connected, the result is a minimum spanning forest.
+     *
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
     @Override
     public GraphAdjacentyList<T> primAL() {
-        GraphAdjacentyList<T> mstGraph = new GraphAdjacentyList<>();
-        Vertex<T> startVertex = vertices.iterator().next();
-
-        // Initialize key, color, and pred arrays
-        for (Vertex<T> u : vertices) {
-            u.setDistance(Integer.MAX_VALUE);
-            u.setColor(Color.WHITE);
-            u.setPredecessor(null);
-            mstGraph.addVertex(new Vertex<>(u.getData()));
-        }
-
-        // Start with the given start vertex
-        startVertex.setDistance(0);
-
-        PriorityQueue<Vertex<T>> priorityQueue = new PriorityQueue<>(vertices.size(),
-                Comparator.comparingInt(Vertex::getDistance));
-        priorityQueue.addAll(vertices);
-
-        while (!priorityQueue.isEmpty()) {
-            Vertex<T> u = priorityQueue.poll();
-            u.setColor(Color.BLACK);
-
-            for (Vertex<T> v : u.getNeighbors()) {
-                int weight = findEdge(u, v) != null ? Objects.requireNonNull(findEdge(u, v)).getWeight()
-                        : Integer.MAX_VALUE;
-                if (v.getColor() == Color.WHITE && weight < v.getDistance()) {
-                    v.setDistance(weight);
-                    priorityQueue.remove(v); // Remove and re-add to update the priority queue
-                    priorityQueue.add(v);
-                    v.setPredecessor(u);
-
-                    Vertex<T> uInMST = mstGraph.findVertex(u.getData());
-                    Vertex<T> vInMST = mstGraph.findVertex(v.getData());
-
-                    if (uInMST != null && vInMST != null) {
-                        mstGraph.addEdge(uInMST, vInMST, weight);
+        return primTraversal().buildForest(new GraphAdjacentyList<>());
+    }
+
+    /**
+     * The function computes a minimum spanning forest with Prim's algorithm, starting a new tree from
+     * every vertex that was not reached by the previous ones. The vertices are not touched.
+     *
+     * @return A Traversal where the predecessor of every vertex is its parent in the forest and its
+     * distance is the weight of the edge to the parent.
+     */
+    @Override
+    public Traversal<T> primTraversal() {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+        int size = vertices.size();
+        boolean[] inTree = new boolean[size];
+        IndexedMinHeap heap = new IndexedMinHeap(size);
+        for (int root = 0; root < size; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            result.distance[root] = 0;
+            heap.push(root, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                inTree[u] = true;
+                result.settle(u);
+                Vertex<T> uVertex = vertices.get(u);
+                for (Edge<T> edge : uVertex.getIncidentEdges()) {
+                    int v = vertexIndex.indexOf(edge.getOpposite(uVertex));
+                    if (!inTree[v] && edge.getWeight() < result.distance[v]) {
+                        result.distance[v] = edge.getWeight();
+                        result.predecessor[v] = u;
+                        heap.push(v, edge.getWeight());
                     }
                 }
             }
         }
-
-        return mstGraph;
+        return result;
     }
 
     /**
@@ -343,12 +591,7 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      * such vertex is found, it returns null.
      */
     public Vertex<T> getVertex(T keyVertex) {
-        for (Vertex<T> vertex : vertices) {
-            if (vertex.getData().equals(keyVertex)) {
-                return vertex;
-            }
-        }
-        return null;
+        return vertexIndex.find(keyVertex);
     }
 
     /**
@@ -364,50 +607,61 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
     }
 
     /**
-     * The function `kruskalAL` implements the Kruskal's algorithm to find the minimum spanning tree of
-     * a graph represented using an adjacency list.
-     * 
-     * @return The method is returning a minimum spanning tree of type GraphAdjacentyList<T>.
+     * The function builds a minimum spanning tree with Kruskal's algorithm over a primitive array of
+     * the edges sorted by weight. If the graph is not connected, the result is a minimum spanning
+     * forest. The graph is not modified.
+     *
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
      */
     @Override
     public GraphAdjacentyList<T> kruskalAL() {
-        GraphAdjacentyList<T> minimumSpanningTree = new GraphAdjacentyList<>();
-        edges.sort(Comparator.comparingInt(Edge::getWeight));
-
-        DisjointSet<T> disjointSet = new DisjointSet<>(vertices);
-
-        for (Vertex<T> vertex : vertices) {
-            minimumSpanningTree.addVertex(new Vertex<>(vertex.getData()));
-        }
-
-        for (Edge<T> edge : edges) {
-            Vertex<T> sourceVertex = edge.getSource();
-            Vertex<T> destinationVertex = edge.getDestination();
-
-            if (!disjointSet.find(sourceVertex.getData()).equals(disjointSet.find(destinationVertex.getData()))) {
-                disjointSet.union(sourceVertex.getData(), destinationVertex.getData());
-                minimumSpanningTree.addEdge(new Vertex<>(sourceVertex.getData()),
-                        new Vertex<>(destinationVertex.getData()), edge.getWeight());
-            }
-        }
-
-        return minimumSpanningTree;
+        return Kruskal.buildForest(vertices, Kruskal.solve(vertices.size(), this::forEachEdge), new GraphAdjacentyList<>());
     }
 
+    /**
+     * The function builds a minimum spanning tree with Prim's algorithm, like primAL, and returns it
+     * as an adjacency matrix.
+     *
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
     @Override
     public GraphAdjacentyMatriz<T> primAM() {
-        return null;
+        return primTraversal().buildForest(new GraphAdjacentyMatriz<>());
     }
 
     /**
-     * The function "kruskalAM" returns a GraphAdjacencyMatrix object.
-     * 
-     * @return The method is returning a GraphAdjacentyMatriz object. However, in this case, it is
-     * returning null.
+     * The function builds a minimum spanning tree with Kruskal's algorithm, like kruskalAL, and
+     * returns it as an adjacency matrix.
+     *
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
      */
     @Override
     public GraphAdjacentyMatriz<T> kruskalAM() {
-        return null;
+        return Kruskal.buildForest(vertices, Kruskal.solve(vertices.size(), this::forEachEdge), new GraphAdjacentyMatriz<>());
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Boruvka's algorithm over a CSR snapshot of the
+     * graph, splitting every round over the given number of threads.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyList<T> boruvkaAL(int parallelism) {
+        return freeze().boruvkaAL(parallelism);
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Boruvka's algorithm, like boruvkaAL, and
+     * returns it as an adjacency matrix.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyMatriz<T> boruvkaAM(int parallelism) {
+        return freeze().boruvkaAM(parallelism);
     }
 
     @Override
@@ -415,31 +669,123 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
         return vertices;
     }
 
+    /**
+     * The function returns the vertices connected to the given one.
+     *
+     * @param vertex The vertex whose neighbors are wanted.
+     * @return A new ArrayList with the neighbors of the vertex.
+     */
+    @Override
+    public ArrayList<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        return new ArrayList<>(vertex.getNeighbors());
+    }
+
+    /**
+     * The function returns the position of a vertex in the list of vertices of the graph, which is
+     * also its row and column in the matrix returned by floydWarshall.
+     *
+     * @param vertex The vertex to look for.
+     * @return The index of the vertex, or -1 if it is not in the graph.
+     */
+    public int indexOf(Vertex<T> vertex) {
+        return vertexIndex.indexOf(vertex);
+    }
+
+    // The function hands every edge of the vertex in a position to the visitor.
+    private void forEachEdge(int position, IntAdjacency.EdgeVisitor visitor) {
+        Vertex<T> vertex = vertices.get(position);
+        for (Edge<T> edge : vertex.getIncidentEdges()) {
+            visitor.visit(vertexIndex.indexOf(edge.getOpposite(vertex)), edge.getWeight());
+        }
+    }
+
+    private ArrayList<Vertex<T>> toVertices(int[] positions) {
+        ArrayList<Vertex<T>> result = new ArrayList<>(positions.length);
+        for (int position : positions) {
+            result.add(vertices.get(position));
+        }
+        return result;
+    }
+
+    private int indexOfVertex(Vertex<T> vertex) {
+        int index = vertexIndex.indexOf(vertex);
+        if (index == -1) {
+            throw new GraphException("The vertex is not in the graph.");
+        }
+        return index;
+    }
+
+    /**
+     * The function produces a read-only snapshot of the graph in compressed sparse row form. The
+     * rows follow the order of the vertices and every row lists the incident edges of the vertex in
+     * the order they were added, so traversals over the snapshot visit the vertices in the same order.
+     *
+     * @return A GraphCSR that shares the Vertex objects of this graph but not its edges.
+     */
+    @Override
+    public GraphCSR<T> freeze() {
+        int size = vertices.size();
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] = offsets[i] + vertices.get(i).getIncidentEdges().size();
+        }
+        int[] targets = new int[offsets[size]];
+        int[] weights = new int[offsets[size]];
+        for (int i = 0; i < size; i++) {
+            int position = offsets[i];
+            for (Edge<T> edge : vertices.get(i).getIncidentEdges()) {
+                targets[position] = vertexIndex.indexOf(edge.getOpposite(vertices.get(i)));
+                weights[position] = edge.getWeight();
+                position++;
+            }
+        }
+        return new GraphCSR<>(new ArrayList<>(vertices), offsets, targets, weights);
+    }
+
     // auxiliars
     /**
-     * The function removes all edges from all vertices in a graph.
+     * The function removes all edges from all vertices in a graph. Every vertex simply drops the
+     * edges it owns, so the cost is linear in the size of the graph.
      */
     public void removeAllEdges() {
         for (Vertex<T> vertex : vertices) {
-            removeAllEdgesFromVertex(vertex);
+            vertex.clearIncidentEdges();
+        }
+        minWeight = 0;
+        maxWeight = 0;
+        weightBoundsStale = false;
+        if (connectivity != null) {
+            connectivity.edgesCleared(vertices.size());
         }
     }
 
-    /**
-     * The function removes all edges connected to a given vertex.
-     * 
-     * @param vertex The parameter "vertex" is an object of type Vertex<T>, where T represents the type
-     * of data stored in the vertex.
-     */
-    private void removeAllEdgesFromVertex(Vertex<T> vertex) {
-        ArrayList<Vertex<T>> neighbors = new ArrayList<>(vertex.getNeighbors());
-        for (Vertex<T> neighbor : neighbors) {
-            removeEdge(vertex, neighbor);
+    // The function marks the weight bounds for a recompute when an edge with a bound weight goes away.
+    private void weightRemoved(int weight) {
+        if ((weight < 0 && weight == minWeight) || (weight > 0 && weight == maxWeight)) {
+            weightBoundsStale = true;
+        }
+    }
+
+    // The function recomputes the weight bounds from the edges left, if an edge at a bound went away.
+    private void refreshWeightBounds() {
+        if (!weightBoundsStale) {
+            return;
+        }
+        minWeight = 0;
+        maxWeight = 0;
+        for (Vertex<T> vertex : vertices) {
+            for (Edge<T> edge : vertex.getIncidentEdges()) {
+                minWeight = Math.min(minWeight, edge.getWeight());
+                maxWeight = Math.max(maxWeight, edge.getWeight());
+            }
         }
+        weightBoundsStale = false;
     }
 
     /**
-     * The function finds and returns an edge between two vertices in a graph.
+     * The function finds and returns the edge between two vertices in a graph. The graph is
+     * undirected, so the order of the vertices does not matter. The lookup goes through the edges
+     * owned by the source vertex, so it takes constant expected time.
      * 
      * @param source The source parameter is a Vertex object representing the starting vertex of the
      * edge.
@@ -447,68 +793,37 @@ public class GraphAdjacentyList<T> implements IGraph<T> {
      * @return The method is returning an object of type Edge<T> or null.
      */
     public Edge<T> findEdge(Vertex<T> source, Vertex<T> destination) {
-        for (Edge<T> edge : edges) {
-            if (edge.getSource().equals(source) && edge.getDestination().equals(destination)) {
-                return edge;
-            }
-        }
-        return null;
+        return source.getIncidentEdge(destination);
     }
 
     /**
-     * The function returns a list of edges connected to a given vertex.
+     * The function returns a list of edges connected to a given vertex. It costs O(degree) since the
+     * edges are read from the vertex itself.
      * 
      * @param vertex The parameter "vertex" is of type Vertex<T>, where T is the type of data stored in
      * the vertex.
      * @return The method is returning an ArrayList of edges that are connected to the given vertex.
      */
     public ArrayList<Edge<T>> getEdges(Vertex<T> vertex) {
-        ArrayList<Edge<T>> vertexEdges = new ArrayList<>();
-        for (Edge<T> edge : edges) {
-            if (edge.getSource().equals(vertex) || edge.getDestination().equals(vertex)) {
-                vertexEdges.add(edge);
-            }
-        }
-        return vertexEdges;
+        return new ArrayList<>(vertex.getIncidentEdges());
     }
 
     /**
-     * The DisjointSet class is a data structure that implements the disjoint-set data structure, which
-     * allows for efficient union and find operations on sets.
+     * The function returns every edge of the graph once. The list is built on demand from the edges
+     * owned by the vertices, so changing it does not change the graph.
+     *
+     * @return An ArrayList with all the edges of the graph.
      */
-    private static class DisjointSet<T> {
-
-        private final Map<T, T> parentMap;
-
-        public DisjointSet(Collection<Vertex<T>> vertices) {
-            parentMap = new HashMap<>();
-            for (Vertex<T> vertex : vertices) {
-                parentMap.put(vertex.getData(), vertex.getData());
-            }
-        }
-
-        public T find(T element) {
-            if (!parentMap.containsKey(element)) {
-                throw new IllegalArgumentException("Element not found in the disjoint set");
-            }
-
-            if (element.equals(parentMap.get(element))) {
-                return element;
-            } else {
-                T root = find(parentMap.get(element));
-                parentMap.put(element, root);
-                return root;
-            }
-        }
-
-        public void union(T set1, T set2) {
-            T root1 = find(set1);
-            T root2 = find(set2);
-
-            if (!root1.equals(root2)) {
-                parentMap.put(root1, root2);
+    public ArrayList<Edge<T>> getEdges() {
+        ArrayList<Edge<T>> allEdges = new ArrayList<>();
+        for (Vertex<T> vertex : vertices) {
+            for (Edge<T> edge : vertex.getIncidentEdges()) {
+                if (edge.getSource() == vertex) {
+                    allEdges.add(edge);
+                }
             }
         }
+        return allEdges;
     }
 
 }
@@ -2,37 +2,134 @@ package com.example.pipegame.model;
 import com.example.exception.GraphException;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
 
+/**
+ * The GraphAdjacentyMatriz class is a graph stored in an adjacency matrix. Every vertex owns a slot,
+ * which is its row and column in the matrix. The matrix has a physical capacity that grows by
+ * doubling, so adding V vertices copies O(V^2) cells in total instead of rebuilding the matrix on
+ * every insertion. Removing a vertex only clears its row and column and leaves a tombstone slot; the
+ * live slots are compacted once the tombstones are half of the slots, before the matrix grows and
+ * when the graph is frozen. Every slot keeps the position of its vertex in getVertices(), so reading
+ * the graph never moves the matrix.
+ *
+ * The cells of the matrix live in an AdjacencyStorage whose memory layout is chosen with a
+ * MatrixLayout when the graph is created: one int[] per row (the default), one flat int[] in
+ * row-major order, direct buffers outside of the Java heap for matrices too big for it, or a bitset
+ * of one bit per cell for unweighted graphs.
+ */
 public class GraphAdjacentyMatriz<T> implements IGraph<T> {
 
-    private ArrayList<Vertex<T>> vertices;
-    private int[][] adjacencyMatrix;
-    private int time;
+    private static final int INITIAL_CAPACITY = 4;
 
-    // The above code is defining a constructor for a class called GraphAdjacencyMatrix. It initializes
-    // an empty ArrayList called vertices, an empty 2D array called adjacencyMatrix, and a variable
-    // called time with a value of 0.
+    private ArrayList<Vertex<T>> vertices;
+    private final ArrayList<Vertex<T>> slots;
+    private final MatrixLayout layout;
+    private final AdjacencyStorage adjacencyMatrix;
+    private final VertexIndex<T> vertexIndex;
+    private int tombstones;
+    // the position in vertices of the vertex of every slot
+    private int[] positions;
+    // bounds of the weights of the edges, used to pick the Dijkstra queue; they are recomputed before
+    // the next search once an edge with one of the bound weights is removed or overwritten
+    private int minWeight;
+    private int maxWeight;
+    private boolean weightBoundsStale;
+    // the components of the graph, kept up to date by the edge operations once it is enabled
+    private ConnectivityIndex connectivity;
+
+    // The above code is defining a constructor for a class called GraphAdjacencyMatrix. It creates
+    // the graph with the jagged layout, one int[] per row.
     public GraphAdjacentyMatriz() {
+        this(MatrixLayout.JAGGED);
+    }
+
+    // This constructor initializes an empty ArrayList called vertices, the list of slots (the vertex
+    // that owns every row of the matrix, null for removed ones), an empty adjacencyMatrix stored with
+    // the given layout and the index that maps every vertex to its slot.
+    public GraphAdjacentyMatriz(MatrixLayout layout) {
+        this.layout = layout;
         vertices = new ArrayList<>();
-        adjacencyMatrix = new int[0][0];
-        time = 0;
+        slots = new ArrayList<>();
+        adjacencyMatrix = AdjacencyStorage.create(layout);
+        vertexIndex = new VertexIndex<>();
+        tombstones = 0;
+        positions = new int[INITIAL_CAPACITY];
+        minWeight = 0;
+        maxWeight = 0;
     }
 
     /**
-     * The addVertex function adds a new vertex to a graph and updates the adjacency matrix
-     * accordingly.
+     * The addVertex function adds a new vertex to a graph and gives it the next free slot of the
+     * adjacency matrix. The matrix is only reallocated when it is full, and then its capacity doubles.
      * 
      * @param vertex The parameter "vertex" is of type Vertex<T>, where T is the type of data that the
      * vertex holds.
      */
     @Override
     public void addVertex(Vertex<T> vertex) {
+        if (slots.size() == adjacencyMatrix.capacity()) {
+            if (tombstones > 0) {
+                compact();
+            }
+            if (slots.size() == adjacencyMatrix.capacity()) {
+                adjacencyMatrix.grow(Math.max(INITIAL_CAPACITY, adjacencyMatrix.capacity() * 2), slots.size());
+            }
+        }
+        if (slots.size() == positions.length) {
+            positions = Arrays.copyOf(positions, positions.length * 2);
+        }
+        positions[slots.size()] = vertices.size();
+        vertexIndex.add(vertex, slots.size());
+        slots.add(vertex);
         vertices.add(vertex);
-        int[][] newMatrix = new int[vertices.size()][vertices.size()];
-        for (int i = 0; i < adjacencyMatrix.length; i++) {
-            System.arraycopy(adjacencyMatrix[i], 0, newMatrix[i], 0, adjacencyMatrix[i].length);
+        if (connectivity != null) {
+            connectivity.vertexAdded();
+        }
+    }
+
+    /**
+     * The function adds several vertices at once. The matrix is grown a single time to fit all of
+     * them before they are added.
+     *
+     * @param newVertices The vertices to add, in order.
+     */
+    public void addVertices(Collection<Vertex<T>> newVertices) {
+        ensureCapacity(vertices.size() + newVertices.size());
+        for (Vertex<T> vertex : newVertices) {
+            addVertex(vertex);
+        }
+    }
+
+    /**
+     * The function makes sure that the graph can hold the given number of vertices without
+     * reallocating the adjacency matrix again.
+     *
+     * @param minCapacity The number of vertices the graph must be able to hold.
+     */
+    public void ensureCapacity(int minCapacity) {
+        int missing = Math.max(0, minCapacity - vertices.size());
+        if (slots.size() + missing > adjacencyMatrix.capacity() && tombstones > 0) {
+            compact();
         }
-        adjacencyMatrix = newMatrix;
+        if (slots.size() + missing > adjacencyMatrix.capacity()) {
+            adjacencyMatrix.grow(slots.size() + missing, slots.size());
+        }
+    }
+
+    /**
+     * The function returns the number of vertices the adjacency matrix can hold before it has to be
+     * reallocated.
+     *
+     * @return The physical size of the matrix.
+     */
+    public int getCapacity() {
+        return adjacencyMatrix.capacity();
+    }
+
+    public MatrixLayout getLayout() {
+        return layout;
     }
 
     /**
@@ -45,46 +142,42 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      */
     @Override
     public Vertex<T> findVertex(T data) {
-        for (Vertex<T> vertex : vertices) {
-            if (vertex.getData().equals(data)) {
-                return vertex;
-            }
-        }
-        return null;
+        return vertexIndex.find(data);
     }
 
    /**
-    * The removeVertex function removes a vertex from a graph by removing its corresponding row and
-    * column from the adjacency matrix.
+    * The removeVertex function removes a vertex from a graph by clearing its corresponding row and
+    * column of the adjacency matrix. The matrix is not rebuilt on every removal.
     * 
     * @param vertex The parameter "vertex" is of type Vertex<T>, where T is the type of data stored in
     * the vertex. It represents the vertex that needs to be removed from the graph.
     */
     @Override
     public void removeVertex(Vertex<T> vertex) throws GraphException{
-        if (!vertices.contains(vertex)) {
+        if (!vertexIndex.contains(vertex)) {
             throw new GraphException("The vertex is not in the graph.");
         }
 
-        int vertexIndex = vertices.indexOf(vertex);
-        vertices.remove(vertex);
-
-        // remove the corresponding row and column from the adjacency matrix
-        int[][] newMatrix = new int[vertices.size()][vertices.size()];
-        for (int i = 0, newRow = 0; i < adjacencyMatrix.length; i++) {
-            if (i == vertexIndex) {
-                continue;
-            }
-            for (int j = 0, newCol = 0; j < adjacencyMatrix[i].length; j++) {
-                if (j != vertexIndex) {
-                    newMatrix[newRow][newCol] = adjacencyMatrix[i][j];
-                    newCol++;
-                }
-            }
-            newRow++;
+        int removedIndex = vertexIndex.indexOf(vertex);
+        vertices.remove(positions[removedIndex]);
+        vertexIndex.remove(vertex);
+        // the vertices after the removed one move back one position
+        for (int slot = removedIndex + 1; slot < slots.size(); slot++) {
+            positions[slot]--;
         }
 
-        adjacencyMatrix = newMatrix;
+        // clear the row and the column of the vertex and leave its slot as a tombstone
+        forEachEdge(removedIndex, (v, weight) -> weightRemoved(weight));
+        adjacencyMatrix.clearRow(removedIndex, slots.size());
+        adjacencyMatrix.clearColumn(removedIndex, slots.size());
+        slots.set(removedIndex, null);
+        tombstones++;
+        if (connectivity != null) {
+            connectivity.vertexRemoved();
+        }
+        if (tombstones * 2 > slots.size()) {
+            compact();
+        }
     }
 
     /**
@@ -100,15 +193,26 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      */
     @Override
     public void addEdge(Vertex<T> source, Vertex<T> destination, int weight) throws GraphException {
-        if (!vertices.contains(source) || !vertices.contains(destination)) {
+        if (!vertexIndex.contains(source) || !vertexIndex.contains(destination)) {
             throw new GraphException("The vertices must be in the graph.");
         }
 
-        int sourceIndex = vertices.indexOf(source);
-        int destinationIndex = vertices.indexOf(destination);
-
-        adjacencyMatrix[sourceIndex][destinationIndex] = weight;
-        adjacencyMatrix[destinationIndex][sourceIndex] = weight;
+        int sourceIndex = vertexIndex.indexOf(source);
+        int destinationIndex = vertexIndex.indexOf(destination);
+
+        weightRemoved(adjacencyMatrix.get(sourceIndex, destinationIndex));
+        adjacencyMatrix.set(sourceIndex, destinationIndex, weight);
+        adjacencyMatrix.set(destinationIndex, sourceIndex, weight);
+        minWeight = Math.min(minWeight, weight);
+        maxWeight = Math.max(maxWeight, weight);
+        if (connectivity != null) {
+            // a weight of 0 is stored as no edge
+            if (weight == 0) {
+                connectivity.edgeRemoved(sourceIndex, destinationIndex);
+            } else {
+                connectivity.edgeAdded(sourceIndex, destinationIndex);
+            }
+        }
     }
 
     /**
@@ -122,20 +226,25 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      */
     @Override
     public void removeEdge(Vertex<T> source, Vertex<T> destination) throws GraphException {
-        if (!vertices.contains(source) || !vertices.contains(destination)) {
+        if (!vertexIndex.contains(source) || !vertexIndex.contains(destination)) {
             throw new GraphException("The vertices must be in the graph.");
         }
 
-        int sourceIndex = vertices.indexOf(source);
-        int destinationIndex = vertices.indexOf(destination);
+        int sourceIndex = vertexIndex.indexOf(source);
+        int destinationIndex = vertexIndex.indexOf(destination);
 
-        adjacencyMatrix[sourceIndex][destinationIndex] = 0;
-        adjacencyMatrix[destinationIndex][sourceIndex] = 0;
+        weightRemoved(adjacencyMatrix.get(sourceIndex, destinationIndex));
+        adjacencyMatrix.set(sourceIndex, destinationIndex, 0);
+        adjacencyMatrix.set(destinationIndex, sourceIndex, 0);
+        if (connectivity != null) {
+            connectivity.edgeRemoved(sourceIndex, destinationIndex);
+        }
     }
 
     /**
      * The function performs a depth-first search starting from a given source vertex and returns the
-     * order in which the vertices were visited.
+     * order in which the vertices were visited. The discovery and finish times are left on the
+     * vertices.
      * 
      * @param source The source parameter is the starting vertex for the Depth First Search (DFS)
      * algorithm. It is the vertex from which the DFS traversal will begin.
@@ -143,44 +252,73 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      */
     @Override
     public ArrayList<Vertex<T>> dfs(Vertex<T> source) {
-        ArrayList<Vertex<T>> dfsOrder = new ArrayList<>();
-        if (vertices.size() > 0) {
-            for (Vertex<T> v : vertices) {
-                v.setColor(Color.WHITE);
-            }
-            time = 0;
-            dfs(vertices.indexOf(source), dfsOrder);
+        if (vertices.isEmpty()) {
+            return new ArrayList<>();
         }
-        return dfsOrder;
+        Traversal<T> result = dfsTraversal(source);
+        result.publish();
+        return result.getOrder();
     }
 
     /**
-     * The function performs a depth-first search on a graph, updating the discovery and finish times
-     * of each vertex and adding them to a list in the order they are visited.
-     * 
-     * @param vertexIndex The index of the vertex that we want to start the depth-first search from.
-     * @param dfsOrder The dfsOrder parameter is an ArrayList that will store the vertices in the order
-     * they are visited during the depth-first search.
-     */
-    private void dfs(int vertexIndex, ArrayList<Vertex<T>> dfsOrder) {
-        time += 1;
-        Vertex<T> v = vertices.get(vertexIndex);
-        v.setDiscoveryTime(time);
-        v.setColor(Color.GRAY);
-        dfsOrder.add(v);
-        for (int uIndex = 0; uIndex < vertices.size(); uIndex++) {
-            if (adjacencyMatrix[vertexIndex][uIndex] != 0 && vertices.get(uIndex).getColor() == Color.WHITE) {
-                dfs(uIndex, dfsOrder);
+     * The function performs a depth-first search without touching the vertices. The state of the
+     * search lives in the returned Traversal, indexed by slot. The search is iterative: the DfsStack
+     * of the thread keeps every open vertex with the column where the scan of its row has to go on,
+     * so the order and the discovery and finish times are the ones of the recursive algorithm, but
+     * the depth of the graph is not limited by the thread stack.
+     *
+     * With the bitset layout the next white neighbor is found by AND-ing whole words of the row with
+     * a bitset of the slots not discovered yet.
+     *
+     * @param source The vertex from which the DFS traversal will begin.
+     * @return A Traversal with the order, the discovery and finish times and the DFS tree.
+     */
+    @Override
+    public Traversal<T> dfsTraversal(Vertex<T> source) {
+        Traversal<T> result = new Traversal<>(slots, vertexIndex::indexOf, true);
+        int start = indexOfVertex(source);
+        int used = slots.size();
+        AdjacencyStorage.Bitset bits = adjacencyMatrix instanceof AdjacencyStorage.Bitset bitset ? bitset : null;
+        long[] unvisited = bits != null ? bits.allSet(used) : null;
+        DfsStack stack = DfsStack.acquire(used);
+
+        result.reach(start, Traversal.NO_VERTEX, 0);
+        result.discoveryTime[start] = ++result.clock;
+        if (unvisited != null) {
+            unvisited[start >>> 6] &= ~(1L << start);
+        }
+        stack.push(start, 0);
+        while (!stack.isEmpty()) {
+            int u = stack.topVertex();
+            int v;
+            if (bits != null) {
+                v = bits.nextUnvisited(u, stack.topCursor(), unvisited);
+            } else {
+                v = adjacencyMatrix.nextNeighbor(u, stack.topCursor(), used);
+                while (v != -1 && result.isReached(v)) {
+                    v = adjacencyMatrix.nextNeighbor(u, v + 1, used);
+                }
+            }
+            if (v != -1) {
+                stack.setTopCursor(v + 1);
+                result.reach(v, u, stack.depth());
+                result.discoveryTime[v] = ++result.clock;
+                if (unvisited != null) {
+                    unvisited[v >>> 6] &= ~(1L << v);
+                }
+                stack.push(v, 0);
+            } else {
+                result.finishTime[u] = ++result.clock;
+                stack.pop();
             }
         }
-        v.setColor(Color.BLACK);
-        time += 1;
-        v.setFinishTime(time);
+        return result;
     }
 
     /**
      * The function performs a breadth-first search (BFS) on a graph starting from a given source
-     * vertex and returns the order in which the vertices are visited.
+     * vertex and returns the order in which the vertices are visited. The color, distance and
+     * predecessor are left on the vertices.
      * 
      * @param source The source parameter is the starting vertex for the breadth-first search
      * algorithm. It is the vertex from which the search will begin and explore its neighboring
@@ -190,109 +328,287 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      */
     @Override
     public ArrayList<Vertex<T>> bfs(Vertex<T> source) {
-        ArrayList<Vertex<T>> bfsOrder = new ArrayList<>();
-
-        for (Vertex<T> u : vertices) {
-            u.setColor(Color.WHITE);
-            u.setDistance(Integer.MAX_VALUE);
-            u.setPredecessor(null);
-        }
-
-        int sourceIndex = vertices.indexOf(source);
-
-        // initialization of the source vertex
-        vertices.get(sourceIndex).setColor(Color.GRAY);
-        vertices.get(sourceIndex).setDistance(0);
-        vertices.get(sourceIndex).setPredecessor(null);
-
-        // queue to take the BFS route
-        Queue<Integer> queue = new LinkedList<>();
-        queue.offer(sourceIndex);
-
-        while (!queue.isEmpty()) {
-            int uIndex = queue.poll();
-            Vertex<T> u = vertices.get(uIndex);
-            bfsOrder.add(u); // add vertex to BFS result
-            // iteration over the neighbors of the current vertex.
-            for (int vIndex = 0; vIndex < vertices.size(); vIndex++) {
-                if (adjacencyMatrix[uIndex][vIndex] != 0 && vertices.get(vIndex).getColor() == Color.WHITE) {
-                    Vertex<T> v = vertices.get(vIndex);
-                    v.setColor(Color.GRAY);
-                    v.setDistance(u.getDistance() + 1);
-                    v.setPredecessor(u);
-                    queue.offer(vIndex);
+        Traversal<T> result = bfsTraversal(source);
+        result.publish();
+        return result.getOrder();
+    }
+
+    /**
+     * The function performs a breadth-first search without touching the vertices. The order array of
+     * the Traversal is also the queue of the search. With the bitset layout the frontier is expanded
+     * 64 vertices at a time: every word of the row of a vertex is AND-ed with the bitset of the slots
+     * not discovered yet, and only the bits left are visited. The order is the same as scanning the
+     * row cell by cell.
+     *
+     * @param source The vertex from which the search will begin.
+     * @return A Traversal with the order, the distances and the BFS tree.
+     */
+    @Override
+    public Traversal<T> bfsTraversal(Vertex<T> source) {
+        Traversal<T> result = new Traversal<>(slots, vertexIndex::indexOf, false);
+        int sourceIndex = indexOfVertex(source);
+        result.reach(sourceIndex, Traversal.NO_VERTEX, 0);
+        if (adjacencyMatrix instanceof AdjacencyStorage.Bitset bits) {
+            long[] unvisited = bits.allSet(slots.size());
+            unvisited[sourceIndex >>> 6] &= ~(1L << sourceIndex);
+            for (int head = 0; head < result.count; head++) {
+                int uIndex = result.order[head];
+                int distance = result.distance[uIndex] + 1;
+                long[] row = bits.row(uIndex);
+                for (int w = 0; w < row.length; w++) {
+                    long discovered = row[w] & unvisited[w];
+                    if (discovered == 0) {
+                        continue;
+                    }
+                    unvisited[w] &= ~discovered;
+                    while (discovered != 0) {
+                        result.reach((w << 6) + Long.numberOfTrailingZeros(discovered), uIndex, distance);
+                        discovered &= discovered - 1;
+                    }
+                }
+            }
+        } else {
+            for (int head = 0; head < result.count; head++) {
+                int uIndex = result.order[head];
+                for (int vIndex = adjacencyMatrix.nextNeighbor(uIndex, 0, slots.size()); vIndex != -1;
+                        vIndex = adjacencyMatrix.nextNeighbor(uIndex, vIndex + 1, slots.size())) {
+                    if (!result.isReached(vIndex)) {
+                        result.reach(vIndex, uIndex, result.distance[uIndex] + 1);
+                    }
                 }
             }
-            u.setColor(Color.BLACK);
         }
+        return result;
+    }
+
+    /**
+     * The function returns the vertices of a breadth-first search as a lazy stream: the graph is only
+     * expanded as the stream is consumed, so a search that stops at a target does not visit the rest
+     * of the graph. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as bfs.
+     */
+    @Override
+    public Stream<Vertex<T>> bfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.bfs(slots.size(), this::forEachEdge, slots::get, indexOfVertex(startVertex));
+    }
 
-        return bfsOrder;
+    /**
+     * The function returns the vertices of a depth-first search as a lazy stream, in the order they
+     * are discovered. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as dfs.
+     */
+    @Override
+    public Stream<Vertex<T>> dfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.dfs(slots.size(), this::forEachEdge, slots::get, indexOfVertex(startVertex));
     }
 
     /**
      * The function implements Dijkstra's algorithm to find the shortest path between two vertices in a
-     * graph.
+     * graph. The search stops as soon as the end vertex is settled.
      * 
      * @param startVertex The starting vertex of the graph from which the Dijkstra's algorithm will
      * find the shortest path.
      * @param endVertex The endVertex parameter is the vertex that we want to find the shortest path to
      * from the startVertex.
      * @return The method is returning an ArrayList of Vertex objects, representing the shortest path
-     * from the startVertex to the endVertex.
+     * from the endVertex back to the startVertex.
      */
     @Override
     public ArrayList<Vertex<T>> dijkstra(Vertex<T> startVertex, Vertex<T> endVertex) {
-        Map<Vertex<T>, Integer> distances = new HashMap<>();
-        Map<Vertex<T>, Vertex<T>> previousVertices = new HashMap<>();
-        Set<Vertex<T>> visitedVertices = new HashSet<>();
-        // initialize distances
-        for (Vertex<T> vertex : vertices) {
-            distances.put(vertex, Integer.MAX_VALUE);
+        int start = vertexIndex.indexOf(startVertex);
+        int end = vertexIndex.indexOf(endVertex);
+        if (start == -1 || end == -1) {
+            ArrayList<Vertex<T>> shortestPath = new ArrayList<>();
+            shortestPath.add(endVertex);
+            return shortestPath;
         }
+        return dijkstra(start, end, null).pathTo(endVertex);
+    }
 
-        distances.put(startVertex, 0);
-        PriorityQueue<Vertex<T>> priorityQueue = new PriorityQueue<>(Comparator.comparingInt(distances::get));
-        priorityQueue.add(startVertex);
-
-        while (!priorityQueue.isEmpty()) {
-            Vertex<T> currentVertex = priorityQueue.poll();
+    /**
+     * The function finds the shortest path between two vertices with the A* algorithm: the vertices
+     * are settled in order of their distance from the start plus the estimate of the heuristic to the
+     * goal, so the search heads towards the goal instead of growing in every direction.
+     *
+     * @param start The vertex from which the shortest path starts.
+     * @param goal The vertex where the shortest path ends.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return An ArrayList with the shortest path, from the goal back to the start, like dijkstra.
+     */
+    @Override
+    public ArrayList<Vertex<T>> aStar(Vertex<T> start, Vertex<T> goal, Heuristic<T> heuristic) {
+        int startSlot = vertexIndex.indexOf(start);
+        int goalSlot = vertexIndex.indexOf(goal);
+        if (startSlot == -1 || goalSlot == -1) {
+            ArrayList<Vertex<T>> shortestPath = new ArrayList<>();
+            shortestPath.add(goal);
+            return shortestPath;
+        }
+        return dijkstra(startSlot, goalSlot, heuristic).pathTo(goal);
+    }
 
-            if (currentVertex.equals(endVertex)) {
-                break;
-            }
+    /**
+     * The function tells if there is a path between two vertices, with a breadth-first search that
+     * stops as soon as the target is seen. The vertices are not modified.
+     *
+     * @param source The vertex where the search begins.
+     * @param target The vertex searched.
+     * @return true if the target can be reached from the source.
+     */
+    @Override
+    public boolean isReachable(Vertex<T> source, Vertex<T> target) {
+        return Reachability.test(slots.size(), this::forEachEdge, indexOfVertex(source), indexOfVertex(target));
+    }
 
-            if (!visitedVertices.contains(currentVertex)) {
-                visitedVertices.add(currentVertex);
-                int currentIndex = vertices.indexOf(currentVertex);
+    /**
+     * The function starts keeping the connected components of the graph up to date on every change
+     * of its edges, so connected can answer without reading the matrix. Calling it again has no
+     * effect.
+     */
+    @Override
+    public void enableConnectivityIndex() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex(slots.size(), this::forEachEdge);
+        }
+    }
 
-                for (int neighborIndex = 0; neighborIndex < vertices.size(); neighborIndex++) {
+    /**
+     * The function tells if there is a path between two vertices. With the connectivity index enabled
+     * the answer comes from the index, otherwise it is the same as isReachable.
+     *
+     * @param a The first vertex.
+     * @param b The second vertex.
+     * @return true if the vertices are in the same component.
+     */
+    @Override
+    public boolean connected(Vertex<T> a, Vertex<T> b) {
+        if (connectivity == null) {
+            return isReachable(a, b);
+        }
+        return connectivity.connected(indexOfVertex(a), indexOfVertex(b), slots.size(), this::forEachEdge);
+    }
 
-                    if (adjacencyMatrix[currentIndex][neighborIndex] != 0) {
-                        Vertex<T> neighborVertex = vertices.get(neighborIndex);
-                        int newDistance = distances.get(currentVertex) + adjacencyMatrix[currentIndex][neighborIndex];
+    /**
+     * The function finds a path with the fewest edges between two vertices, searching from both of
+     * them at once and stopping when the two searches meet.
+     *
+     * @param source The vertex where the path starts.
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the path, from the target back to the source, like dijkstra. If the
+     * target can not be reached, only the target.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalBfs(Vertex<T> source, Vertex<T> target) {
+        int start = vertexIndex.indexOf(source);
+        int end = vertexIndex.indexOf(target);
+        if (start == -1 || end == -1) {
+            ArrayList<Vertex<T>> path = new ArrayList<>();
+            path.add(target);
+            return path;
+        }
+        return toVertices(BidirectionalSearch.bfs(slots.size(), this::forEachEdge, start, end));
+    }
 
-                        if (newDistance < distances.get(neighborVertex)) {
-                            distances.put(neighborVertex, newDistance);
-                            previousVertices.put(neighborVertex, currentVertex);
-                            priorityQueue.add(neighborVertex);
-                            // Remove and re-add the neighbor to update its position in the PriorityQueue
-                            priorityQueue.remove(neighborVertex);
-                            priorityQueue.add(neighborVertex);
-                        }
-                    }
-                }
-            }
+    /**
+     * The function finds the shortest path between two vertices with a Dijkstra search from each of
+     * them, stopping when no path shorter than the best one where they met can be found.
+     *
+     * @param source The vertex where the path starts.
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the shortest path, from the target back to the source, like dijkstra.
+     * If the target can not be reached, only the target.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalDijkstra(Vertex<T> source, Vertex<T> target) {
+        int start = vertexIndex.indexOf(source);
+        int end = vertexIndex.indexOf(target);
+        if (start == -1 || end == -1) {
+            ArrayList<Vertex<T>> path = new ArrayList<>();
+            path.add(target);
+            return path;
         }
+        return toVertices(BidirectionalSearch.dijkstra(slots.size(), this::forEachEdge, start, end));
+    }
 
-        ArrayList<Vertex<T>> shortestPath = new ArrayList<>();
-        Vertex<T> currentVertex = endVertex;
+    /**
+     * The function runs the A* algorithm between two vertices without touching them.
+     *
+     * @param start The vertex from which the shortest path starts.
+     * @param goal The vertex where the search stops.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return A Traversal with the vertices in the order they were settled, their distances and the
+     * predecessors of the path.
+     */
+    @Override
+    public Traversal<T> aStarTraversal(Vertex<T> start, Vertex<T> goal, Heuristic<T> heuristic) {
+        return dijkstra(indexOfVertex(start), indexOfVertex(goal), heuristic);
+    }
 
-        while (currentVertex != null) {
-            shortestPath.add(currentVertex);
-            currentVertex = previousVertices.get(currentVertex);
-        }
+    /**
+     * The function computes the shortest distance from a vertex to every other one with Dijkstra's
+     * algorithm, without touching the vertices.
+     *
+     * @param source The vertex from which the shortest paths start.
+     * @return A Traversal with the vertices in the order they were settled, their distances and the
+     * shortest path tree.
+     */
+    @Override
+    public Traversal<T> dijkstraTraversal(Vertex<T> source) {
+        return dijkstra(indexOfVertex(source), Traversal.NO_VERTEX, null);
+    }
 
-        return shortestPath;
+    /**
+     * The function runs Dijkstra's algorithm over slots. The priority queue is an IndexedMinHeap, so
+     * every vertex is queued once and an improved distance lowers its key in place. With a
+     * heuristic, the key of a vertex also adds its estimate to the end vertex, which turns the search
+     * into A*. Without one, and when the weights are small non-negative integers, the search runs on
+     * the bucket queues of BucketShortestPaths instead of the heap.
+     *
+     * @param start The slot of the source vertex.
+     * @param end The slot where the search can stop, or Traversal.NO_VERTEX to settle every reachable
+     * vertex.
+     * @param heuristic The estimate to the end vertex, or null for plain Dijkstra.
+     * @return The Traversal with the distances and the shortest path tree.
+     */
+    private Traversal<T> dijkstra(int start, int end, Heuristic<T> heuristic) {
+        if (heuristic == null) {
+            refreshWeightBounds();
+        }
+        if (heuristic == null && BucketShortestPaths.accepts(minWeight, maxWeight)) {
+            Traversal<T> result = new Traversal<>(slots, vertexIndex::indexOf, false);
+            if (BucketShortestPaths.run(result, this::forEachEdge, start, end, maxWeight)) {
+                return result;
+            }
+        }
+        Traversal<T> result = new Traversal<>(slots, vertexIndex::indexOf, false);
+        T goal = heuristic == null ? null : slots.get(end).getData();
+        int used = slots.size();
+        boolean[] settled = new boolean[used];
+        IndexedMinHeap heap = new IndexedMinHeap(used);
+        result.distance[start] = 0;
+        heap.push(start, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled[u] = true;
+            result.settle(u);
+            if (u == end) {
+                break;
+            }
+            for (int v = adjacencyMatrix.nextNeighbor(u, 0, used); v != -1; v = adjacencyMatrix.nextNeighbor(u, v + 1, used)) {
+                int newDistance = result.distance[u] + adjacencyMatrix.get(u, v);
+                if (!settled[v] && newDistance < result.distance[v]) {
+                    result.distance[v] = newDistance;
+                    result.predecessor[v] = u;
+                    heap.push(v, heuristic == null ? newDistance
+                            : newDistance + heuristic.estimate(slots.get(v).getData(), goal));
+                }
+            }
+        }
+        return result;
     }
 
    /**
@@ -304,126 +620,152 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
     */
     @Override
     public int[][] floydWarshall() {
-        int[][] dist = new int[vertices.size()][vertices.size()];
-
-        // initialize dist matrix with edge weights
-        for (int i = 0; i < vertices.size(); i++) {
-            for (int j = 0; j < vertices.size(); j++) {
-                if (i == j) {
-                    dist[i][j] = 0;
-                } else {
-                    Edge<T> edge = findEdge(vertices.get(i), vertices.get(j));
-                    dist[i][j] = (edge != null) ? edge.getWeight() : Integer.MAX_VALUE;
-                }
-            }
-        }
+        return floydWarshall(ForkJoinPool.getCommonPoolParallelism());
+    }
 
-        for (int k = 0; k < vertices.size(); k++) {
-            for (int i = 0; i < vertices.size(); i++) {
-                for (int j = 0; j < vertices.size(); j++) {
-                    if (dist[i][j] > (dist[i][k] + dist[k][j]) && dist[k][j] != Integer.MAX_VALUE
-                            && dist[i][k] != Integer.MAX_VALUE) {
-                        dist[i][j] = dist[i][k] + dist[k][j];
-                    }
+    /**
+     * The function runs the blocked Floyd-Warshall algorithm with the given number of threads. While
+     * there are no tombstones, the slot of every vertex is its position, so every row of the matrix
+     * is copied straight from the adjacency storage.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable.
+     */
+    @Override
+    public int[][] floydWarshall(int parallelism) {
+        int[] live = liveSlots();
+        int size = live.length;
+        int[][] dist = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            int[] row = dist[i];
+            copyLiveRow(live, i, row);
+            for (int j = 0; j < size; j++) {
+                if (row[j] == 0) {
+                    row[j] = Integer.MAX_VALUE;
                 }
             }
+            row[i] = 0;
         }
+        return BlockedFloydWarshall.solve(dist, parallelism);
+    }
 
-        return dist;
+    /**
+     * The function computes the shortest distance between all pairs of vertices on the CSR snapshot
+     * of the graph, which picks between Floyd-Warshall and one Dijkstra per vertex.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable.
+     */
+    @Override
+    public int[][] allPairsShortestPaths(int parallelism) {
+        return freeze().allPairsShortestPaths(parallelism);
     }
 
+    /**
+     * The function builds a minimum spanning tree with Prim's algorithm, like primAM, and returns it
+     * as an adjacency list.
+     *
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
     @Override
     public GraphAdjacentyList<T> primAL() {
-        return null;
+        return primTraversal().buildForest(new GraphAdjacentyList<>());
     }
 
-   /**
-    * The function "kruskalAL" returns a GraphAdjacencyList object, but currently it returns null.
-    * 
-    * @return The method is returning null.
-    */
+    /**
+     * The function builds a minimum spanning tree with Kruskal's algorithm, like kruskalAM, and
+     * returns it as an adjacency list.
+     *
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
     @Override
     public GraphAdjacentyList<T> kruskalAL() {
-        return null;
+        return Kruskal.buildForest(slots, Kruskal.solve(slots.size(), this::forEachEdge), new GraphAdjacentyList<>());
     }
 
-
+    /**
+     * The function builds a minimum spanning tree with Prim's algorithm, stored with the same layout
+     * as this graph. If the graph is not connected, the result is a minimum spanning forest.
+     *
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
     @Override
     public GraphAdjacentyMatriz<T> primAM() {
-        GraphAdjacentyMatriz<T> mstGraph = new GraphAdjacentyMatriz<>();
-        Vertex<T> startVertex = vertices.iterator().next();
-
-        // initialize distance, color, and pred arrays
-        for (Vertex<T> u : vertices) {
-            u.setDistance(Integer.MAX_VALUE);
-            u.setColor(Color.WHITE);
-            u.setPredecessor(null);
-            mstGraph.addVertex(new Vertex<>(u.getData()));
-        }
-
-        startVertex.setDistance(0);
-
-        PriorityQueue<Vertex<T>> priorityQueue = new PriorityQueue<>(vertices.size(),
-                Comparator.comparingInt(Vertex::getDistance));
-        priorityQueue.addAll(vertices);
-
-        while (!priorityQueue.isEmpty()) {
-            Vertex<T> u = priorityQueue.poll();
-            u.setColor(Color.BLACK);
-
-            for (Vertex<T> v : vertices) {
-                int weight = adjacencyMatrix[vertices.indexOf(u)][vertices.indexOf(v)];
-
-                if (v.getColor() == Color.WHITE && weight > 0 && weight < v.getDistance()) {
-                    v.setDistance(weight);
-                    priorityQueue.remove(v);
-                    priorityQueue.add(v);
-                    v.setPredecessor(u);
-
-                    Vertex<T> uInMST = mstGraph.findVertex(u.getData());
-                    Vertex<T> vInMST = mstGraph.findVertex(v.getData());
+        return primTraversal().buildForest(new GraphAdjacentyMatriz<>(layout));
+    }
 
-                    if (uInMST != null && vInMST != null) {
-                        mstGraph.addEdge(uInMST, vInMST, weight);
+    /**
+     * The function computes a minimum spanning forest with Prim's algorithm, starting a new tree from
+     * every vertex that was not reached by the previous ones. The vertices are not touched.
+     *
+     * @return A Traversal where the predecessor of every vertex is its parent in the forest and its
+     * distance is the weight of the edge to the parent.
+     */
+    @Override
+    public Traversal<T> primTraversal() {
+        Traversal<T> result = new Traversal<>(slots, vertexIndex::indexOf, false);
+        int used = slots.size();
+        boolean[] inTree = new boolean[used];
+        IndexedMinHeap heap = new IndexedMinHeap(used);
+        for (int root = 0; root < used; root++) {
+            if (inTree[root] || slots.get(root) == null) {
+                continue;
+            }
+            result.distance[root] = 0;
+            heap.push(root, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                inTree[u] = true;
+                result.settle(u);
+                for (int v = adjacencyMatrix.nextNeighbor(u, 0, used); v != -1; v = adjacencyMatrix.nextNeighbor(u, v + 1, used)) {
+                    int weight = adjacencyMatrix.get(u, v);
+                    if (!inTree[v] && weight < result.distance[v]) {
+                        result.distance[v] = weight;
+                        result.predecessor[v] = u;
+                        heap.push(v, weight);
                     }
                 }
             }
         }
-
-        return mstGraph;
+        return result;
     }
 
     /**
-     * The function `kruskalAM` implements the Kruskal's algorithm to find the minimum spanning tree of
-     * a graph represented using an adjacency matrix.
-     * 
-     * @return The method `kruskalAM` returns a `GraphAdjacentyMatriz<T>` object, which represents the
-     * minimum spanning tree of the original graph.
+     * The function builds a minimum spanning tree with Kruskal's algorithm over a primitive array of
+     * the edges sorted by weight, stored with the same layout as this graph. If the graph is not
+     * connected, the result is a minimum spanning forest. The graph is not modified.
+     *
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
      */
     @Override
     public GraphAdjacentyMatriz<T> kruskalAM() {
-        GraphAdjacentyMatriz<T> minimumSpanningTree = new GraphAdjacentyMatriz<>();
-        List<Edge<T>> allEdges = getAllEdges();
-        allEdges.sort(Comparator.comparingInt(Edge::getWeight));
-
-        DisjointSet<T> disjointSet = new DisjointSet<>(vertices);
-
-        for (Vertex<T> vertex : vertices) {
-            minimumSpanningTree.addVertex(new Vertex<>(vertex.getData()));
-        }
-
-        for (Edge<T> edge : allEdges) {
-            Vertex<T> sourceVertex = edge.getSource();
-            Vertex<T> destinationVertex = edge.getDestination();
+        return Kruskal.buildForest(slots, Kruskal.solve(slots.size(), this::forEachEdge), new GraphAdjacentyMatriz<>(layout));
+    }
 
-            if (!disjointSet.find(sourceVertex.getData()).equals(disjointSet.find(destinationVertex.getData()))) {
-                disjointSet.union(sourceVertex.getData(), destinationVertex.getData());
-                minimumSpanningTree.addEdge(new Vertex<>(sourceVertex.getData()),
-                        new Vertex<>(destinationVertex.getData()), edge.getWeight());
-            }
-        }
+    /**
+     * The function builds a minimum spanning tree with Boruvka's algorithm over a CSR snapshot of the
+     * graph, splitting every round over the given number of threads, and returns it as an adjacency
+     * list.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyList<T> boruvkaAL(int parallelism) {
+        return freeze().boruvkaAL(parallelism);
+    }
 
-        return minimumSpanningTree;
+    /**
+     * The function builds a minimum spanning tree with Boruvka's algorithm, stored with the same
+     * layout as this graph.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyMatriz<T> boruvkaAM(int parallelism) {
+        GraphCSR<T> snapshot = freeze();
+        return Kruskal.buildForest(snapshot.getVertices(), snapshot.boruvka(parallelism), new GraphAdjacentyMatriz<>(layout));
     }
 
     /**
@@ -440,51 +782,190 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      * The function removes all edges from all vertices in a graph.
      */
     public void removeAllEdges() {
-        for (Vertex<T> vertex : vertices) {
-            removeAllEdgesFromVertex(vertex);
+        for (int i = 0; i < slots.size(); i++) {
+            adjacencyMatrix.clearRow(i, slots.size());
+        }
+        minWeight = 0;
+        maxWeight = 0;
+        weightBoundsStale = false;
+        if (connectivity != null) {
+            connectivity.edgesCleared(slots.size());
+        }
+    }
+
+    // The function marks the weight bounds for a recompute when an edge with a bound weight goes away.
+    private void weightRemoved(int weight) {
+        if ((weight < 0 && weight == minWeight) || (weight > 0 && weight == maxWeight)) {
+            weightBoundsStale = true;
+        }
+    }
+
+    // The function recomputes the weight bounds from the edges left, if an edge at a bound went away.
+    private void refreshWeightBounds() {
+        if (!weightBoundsStale) {
+            return;
+        }
+        minWeight = 0;
+        maxWeight = 0;
+        for (int slot = 0; slot < slots.size(); slot++) {
+            forEachEdge(slot, (v, weight) -> {
+                minWeight = Math.min(minWeight, weight);
+                maxWeight = Math.max(maxWeight, weight);
+            });
+        }
+        weightBoundsStale = false;
+    }
+
+    /**
+     * The function produces a read-only snapshot of the graph in compressed sparse row form, reading
+     * every row of the adjacency matrix once.
+     *
+     * @return A GraphCSR that shares the Vertex objects of this graph but not its matrix.
+     */
+    @Override
+    public GraphCSR<T> freeze() {
+        compact();
+        int size = vertices.size();
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < size; i++) {
+            int degree = 0;
+            for (int j = adjacencyMatrix.nextNeighbor(i, 0, size); j != -1; j = adjacencyMatrix.nextNeighbor(i, j + 1, size)) {
+                degree++;
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+        int[] targets = new int[offsets[size]];
+        int[] weights = new int[offsets[size]];
+        for (int i = 0; i < size; i++) {
+            int position = offsets[i];
+            for (int j = adjacencyMatrix.nextNeighbor(i, 0, size); j != -1; j = adjacencyMatrix.nextNeighbor(i, j + 1, size)) {
+                targets[position] = j;
+                weights[position] = adjacencyMatrix.get(i, j);
+                position++;
+            }
         }
+        return new GraphCSR<>(new ArrayList<>(vertices), offsets, targets, weights);
     }
 
+    /**
+     * The function returns a copy of the adjacency matrix with one row and one column per vertex, in
+     * the order of getVertices().
+     *
+     * @return A square matrix of the size of the graph.
+     */
     public int[][] getAdjacencyMatrix() {
-        return adjacencyMatrix;
+        int[] live = liveSlots();
+        int size = live.length;
+        int[][] matrix = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            copyLiveRow(live, i, matrix[i]);
+        }
+        return matrix;
     }
 
     /**
-     * The function removes all edges connected to a given vertex in a graph represented by an
-     * adjacency matrix.
-     * 
-     * @param vertex The parameter "vertex" is an object of type Vertex<T>, where T is the type of data
-     * stored in the vertex.
+     * The function returns the vertices connected to the given one. The matrix graph does not fill
+     * the neighbor lists of its vertices, so they are read from the row of the vertex.
+     *
+     * @param vertex The vertex whose neighbors are wanted.
+     * @return A new ArrayList with the neighbors of the vertex.
      */
-    private void removeAllEdgesFromVertex(Vertex<T> vertex) {
-        int vertexIndex = vertices.indexOf(vertex);
-        // clear all edges going to and from the vertex in the adjacency matrix
-        for (int i = 0; i < vertices.size(); i++) {
-            adjacencyMatrix[vertexIndex][i] = 0;
-            adjacencyMatrix[i][vertexIndex] = 0;
+    @Override
+    public ArrayList<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        int row = vertexIndex.indexOf(vertex);
+        ArrayList<Vertex<T>> neighbors = new ArrayList<>();
+        for (int j = adjacencyMatrix.nextNeighbor(row, 0, slots.size()); j != -1;
+                j = adjacencyMatrix.nextNeighbor(row, j + 1, slots.size())) {
+            neighbors.add(slots.get(j));
         }
+        return neighbors;
     }
 
     /**
-     * The function getAllEdges() returns a list of all edges in a graph represented by an adjacency
-     * matrix.
-     * 
-     * @return The method is returning a List of Edge objects.
-     */
-    private List<Edge<T>> getAllEdges() {
-        List<Edge<T>> allEdges = new ArrayList<>();
-        for (int i = 0; i < adjacencyMatrix.length; i++) {
-            for (int j = i + 1; j < adjacencyMatrix[i].length; j++) {
-                if (adjacencyMatrix[i][j] != 0) {
-                    Vertex<T> source = vertices.get(i);
-                    Vertex<T> destination = vertices.get(j);
-                    int weight = adjacencyMatrix[i][j];
-                    allEdges.add(new Edge<>(source, destination, weight));
-                }
+     * The function returns the position of a vertex in getVertices(), which is its row and column in
+     * getAdjacencyMatrix(). It reads the position kept for the slot of the vertex, so it does not
+     * compact the tombstones left by removed vertices.
+     *
+     * @param vertex The vertex to look for.
+     * @return The index of the vertex, or -1 if it is not in the graph.
+     */
+    public int indexOf(Vertex<T> vertex) {
+        int slot = vertexIndex.indexOf(vertex);
+        return slot != -1 ? positions[slot] : -1;
+    }
+
+    // The function returns the live slots in the order of getVertices().
+    private int[] liveSlots() {
+        int[] live = new int[vertices.size()];
+        int count = 0;
+        for (int slot = 0; slot < slots.size(); slot++) {
+            if (slots.get(slot) != null) {
+                live[count++] = slot;
             }
         }
-        return allEdges;
+        return live;
+    }
+
+    // The function copies the row of the i-th live slot, keeping only the columns of live slots.
+    private void copyLiveRow(int[] live, int i, int[] row) {
+        if (tombstones == 0) {
+            adjacencyMatrix.copyRow(i, row, live.length);
+            return;
+        }
+        int slot = live[i];
+        for (int j = 0; j < live.length; j++) {
+            row[j] = adjacencyMatrix.get(slot, live[j]);
+        }
+    }
+
+    // The function hands every edge of the vertex in a slot to the visitor.
+    private void forEachEdge(int slot, IntAdjacency.EdgeVisitor visitor) {
+        int used = slots.size();
+        for (int v = adjacencyMatrix.nextNeighbor(slot, 0, used); v != -1; v = adjacencyMatrix.nextNeighbor(slot, v + 1, used)) {
+            visitor.visit(v, adjacencyMatrix.get(slot, v));
+        }
+    }
+
+    private ArrayList<Vertex<T>> toVertices(int[] slotIds) {
+        ArrayList<Vertex<T>> result = new ArrayList<>(slotIds.length);
+        for (int slot : slotIds) {
+            result.add(slots.get(slot));
+        }
+        return result;
     }
+
+    private int indexOfVertex(Vertex<T> vertex) {
+        int index = vertexIndex.indexOf(vertex);
+        if (index == -1) {
+            throw new GraphException("The vertex is not in the graph.");
+        }
+        return index;
+    }
+
+    /**
+     * The function removes the tombstone slots, moving the rows and columns of the live vertices
+     * down in place so that the slot of every vertex is again its position in getVertices().
+     */
+    private void compact() {
+        if (tombstones == 0) {
+            return;
+        }
+        int used = slots.size();
+        int[] live = liveSlots();
+        adjacencyMatrix.compact(live, live.length, used);
+        slots.clear();
+        slots.addAll(vertices);
+        vertexIndex.reindex(vertices, 0);
+        for (int i = 0; i < live.length; i++) {
+            positions[i] = i;
+        }
+        tombstones = 0;
+        if (connectivity != null) {
+            // the slots were renumbered
+            connectivity.vertexRemoved();
+        }
+    }
+
 /**
  * The function finds and returns an edge between two vertices if it exists in the adjacency matrix.
  * 
@@ -496,56 +977,16 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
  */
 
     public Edge<T> findEdge(Vertex<T> source, Vertex<T> destination) {
-        int sourceIndex = vertices.indexOf(source);
-        int destinationIndex = vertices.indexOf(destination);
+        int sourceIndex = vertexIndex.indexOf(source);
+        int destinationIndex = vertexIndex.indexOf(destination);
 
-        if (sourceIndex != -1 && destinationIndex != -1 && adjacencyMatrix[sourceIndex][destinationIndex] != 0) {
-            int weight = adjacencyMatrix[sourceIndex][destinationIndex];
+        if (sourceIndex != -1 && destinationIndex != -1 && adjacencyMatrix.get(sourceIndex, destinationIndex) != 0) {
+            int weight = adjacencyMatrix.get(sourceIndex, destinationIndex);
             return new Edge<>(source, destination, weight);
         }
         return null;
     }
 
-   /**
-    * The DisjointSet class is a data structure that implements the disjoint-set data structure, which
-    * allows for efficient union and find operations on sets.
-    */
-    private static class DisjointSet<T> {
-
-        private final Map<T, T> parentMap;
-
-        public DisjointSet(Collection<Vertex<T>> vertices) {
-            parentMap = new HashMap<>();
-            for (Vertex<T> vertex : vertices) {
-                parentMap.put(vertex.getData(), vertex.getData());
-            }
-        }
-
-        public T find(T element) {
-            if (!parentMap.containsKey(element)) {
-                throw new IllegalArgumentException("Element not found in the disjoint set");
-            }
-
-            if (element.equals(parentMap.get(element))) {
-                return element;
-            } else {
-                T root = find(parentMap.get(element));
-                parentMap.put(element, root);
-                return root;
-            }
-        }
-
-
-        public void union(T set1, T set2) {
-            T root1 = find(set1);
-            T root2 = find(set2);
-
-            if (!root1.equals(root2)) {
-                parentMap.put(root1, root2);
-            }
-        }
-    }
-
     /**
      * The function returns a vertex with a specific key value from a list of vertices.
      * 
@@ -556,12 +997,7 @@ public class GraphAdjacentyMatriz<T> implements IGraph<T> {
      */
     @Override
     public Vertex<T> getVertex(T keyVertex) {
-        for (Vertex<T> vertex : vertices) {
-            if (vertex.getData().equals(keyVertex)) {
-                return vertex;
-            }
-        }
-        return null;
+        return vertexIndex.find(keyVertex);
     }
 
 }
@@ -0,0 +1,636 @@
+package com.example.pipegame.model;
+import com.example.exception.GraphException;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * The GraphCSR class is a read-only snapshot of a graph stored in compressed sparse row form. The
+ * neighbors of the vertex with index i are targets[offsets[i]] .. targets[offsets[i + 1] - 1], and the
+ * weight of each of those edges is at the same position of weights. Every undirected edge is stored
+ * once in the row of each endpoint.
+ *
+ * A snapshot is produced by the freeze() operation of the mutable graphs. The topology can not be
+ * changed afterwards, so every query runs over primitive arrays instead of following the neighbor
+ * lists of the vertices and the Edge objects. Like the other implementations, the traversal queries
+ * return their state in a Traversal, and bfs and dfs also leave it on the Vertex objects.
+ */
+public class GraphCSR<T> implements IGraph<T> {
+
+    private static final String READ_ONLY_MESSAGE = "The graph is frozen and can not be modified.";
+
+    private final ArrayList<Vertex<T>> vertices;
+    private final VertexIndex<T> vertexIndex;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    // the components of the snapshot, built once by enableConnectivityIndex
+    private ConnectivityIndex connectivity;
+
+    // The constructor receives the vertices in index order and the three CSR arrays. It is only used
+    // by the freeze() operation of the mutable graphs, which own the arrays they pass.
+    GraphCSR(ArrayList<Vertex<T>> vertices, int[] offsets, int[] targets, int[] weights) {
+        this.vertices = vertices;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        vertexIndex = new VertexIndex<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            vertexIndex.add(vertices.get(i), i);
+        }
+    }
+
+    @Override
+    public void addVertex(Vertex<T> vertex) {
+        throw new GraphException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public Vertex<T> findVertex(T data) {
+        return vertexIndex.find(data);
+    }
+
+    @Override
+    public void removeVertex(Vertex<T> vertex) {
+        throw new GraphException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void addEdge(Vertex<T> source, Vertex<T> destination, int weight) {
+        throw new GraphException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void removeEdge(Vertex<T> source, Vertex<T> destination) {
+        throw new GraphException(READ_ONLY_MESSAGE);
+    }
+
+    @Override
+    public void removeAllEdges() {
+        throw new GraphException(READ_ONLY_MESSAGE);
+    }
+
+    /**
+     * The function performs a depth-first search starting from a given source vertex and leaves the
+     * discovery and finish times on the vertices.
+     *
+     * @param source The vertex from which the DFS traversal will begin.
+     * @return An ArrayList with the vertices in the order they were discovered.
+     */
+    @Override
+    public ArrayList<Vertex<T>> dfs(Vertex<T> source) {
+        if (vertices.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Traversal<T> result = dfsTraversal(source);
+        result.publish();
+        return result.getOrder();
+    }
+
+    /**
+     * The function performs a depth-first search without touching the vertices. It uses the DfsStack
+     * of the thread, where every open vertex keeps the next row position to explore, so the visiting
+     * order and the discovery and finish times are the same as the ones of the recursive version,
+     * without its depth limit.
+     *
+     * @param source The vertex from which the DFS traversal will begin.
+     * @return A Traversal with the order, the discovery and finish times and the DFS tree.
+     */
+    @Override
+    public Traversal<T> dfsTraversal(Vertex<T> source) {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, true);
+        int start = indexOfVertex(source);
+        DfsStack stack = DfsStack.acquire(vertices.size());
+
+        result.reach(start, Traversal.NO_VERTEX, 0);
+        result.discoveryTime[start] = ++result.clock;
+        stack.push(start, offsets[start]);
+        while (!stack.isEmpty()) {
+            int u = stack.topVertex();
+            int end = offsets[u + 1];
+            int position = stack.topCursor();
+            while (position < end && result.isReached(targets[position])) {
+                position++;
+            }
+            if (position < end) {
+                stack.setTopCursor(position + 1);
+                int v = targets[position];
+                result.reach(v, u, stack.depth());
+                result.discoveryTime[v] = ++result.clock;
+                stack.push(v, offsets[v]);
+            } else {
+                result.finishTime[u] = ++result.clock;
+                stack.pop();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The function performs a breadth-first search (BFS) starting from a given source vertex and
+     * leaves the color, distance and predecessor on the vertices.
+     *
+     * @param source The vertex from which the search will begin.
+     * @return An ArrayList with the vertices in the order they were visited.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bfs(Vertex<T> source) {
+        Traversal<T> result = bfsTraversal(source);
+        result.publish();
+        return result.getOrder();
+    }
+
+    /**
+     * The function performs a breadth-first search without touching the vertices. The order array of
+     * the Traversal is also the queue of the search.
+     *
+     * @param source The vertex from which the search will begin.
+     * @return A Traversal with the order, the distances and the BFS tree.
+     */
+    @Override
+    public Traversal<T> bfsTraversal(Vertex<T> source) {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+        result.reach(indexOfVertex(source), Traversal.NO_VERTEX, 0);
+        for (int head = 0; head < result.count; head++) {
+            int u = result.order[head];
+            int nextDistance = result.distance[u] + 1;
+            for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                int v = targets[position];
+                if (!result.isReached(v)) {
+                    result.reach(v, u, nextDistance);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The function returns the vertices of a breadth-first search as a lazy stream: the graph is only
+     * expanded as the stream is consumed, so a search that stops at a target does not visit the rest
+     * of the graph. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as bfs.
+     */
+    @Override
+    public Stream<Vertex<T>> bfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.bfs(vertices.size(), this::forEachEdge, vertices::get, indexOfVertex(startVertex));
+    }
+
+    /**
+     * The function returns the vertices of a depth-first search as a lazy stream, in the order they
+     * are discovered. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as dfs.
+     */
+    @Override
+    public Stream<Vertex<T>> dfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.dfs(vertices.size(), this::forEachEdge, vertices::get, indexOfVertex(startVertex));
+    }
+
+    /**
+     * The function implements Dijkstra's algorithm between two vertices. The search stops as soon as
+     * the destination is settled.
+     *
+     * @param source The vertex from which the shortest path starts.
+     * @param destination The vertex where the shortest path ends.
+     * @return An ArrayList with the shortest path, from the destination back to the source. If the
+     * destination can not be reached, the list only contains the destination.
+     */
+    @Override
+    public ArrayList<Vertex<T>> dijkstra(Vertex<T> source, Vertex<T> destination) {
+        return dijkstra(indexOfVertex(source), indexOfVertex(destination), null).pathTo(destination);
+    }
+
+    /**
+     * The function finds the shortest path between two vertices with the A* algorithm: the vertices
+     * are settled in order of their distance from the start plus the estimate of the heuristic to the
+     * goal, so the search heads towards the goal instead of growing in every direction.
+     *
+     * @param start The vertex from which the shortest path starts.
+     * @param goal The vertex where the shortest path ends.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return An ArrayList with the shortest path, from the goal back to the start, like dijkstra.
+     */
+    @Override
+    public ArrayList<Vertex<T>> aStar(Vertex<T> start, Vertex<T> goal, Heuristic<T> heuristic) {
+        return aStarTraversal(start, goal, heuristic).pathTo(goal);
+    }
+
+    /**
+     * The function tells if there is a path between two vertices, with a breadth-first search that
+     * stops as soon as the target is seen. The vertices are not modified.
+     *
+     * @param source The vertex where the search begins.
+     * @param target The vertex searched.
+     * @return true if the target can be reached from the source.
+     */
+    @Override
+    public boolean isReachable(Vertex<T> source, Vertex<T> target) {
+        return Reachability.test(vertices.size(), this::forEachEdge, indexOfVertex(source), indexOfVertex(target));
+    }
+
+    /**
+     * The function computes the connected components of the snapshot once, so connected can answer
+     * without a search. The snapshot never changes, so the index is never updated.
+     */
+    @Override
+    public void enableConnectivityIndex() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex(vertices.size(), this::forEachEdge);
+        }
+    }
+
+    /**
+     * The function tells if there is a path between two vertices. With the connectivity index enabled
+     * the answer comes from the index, otherwise it is the same as isReachable.
+     *
+     * @param a The first vertex.
+     * @param b The second vertex.
+     * @return true if the vertices are in the same component.
+     */
+    @Override
+    public boolean connected(Vertex<T> a, Vertex<T> b) {
+        if (connectivity == null) {
+            return isReachable(a, b);
+        }
+        return connectivity.connected(indexOfVertex(a), indexOfVertex(b), vertices.size(), this::forEachEdge);
+    }
+
+    /**
+     * The function finds a path with the fewest edges between two vertices, searching from both of
+     * them at once and stopping when the two searches meet.
+     *
+     * @param source The vertex where the path starts.
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the path, from the target back to the source, like dijkstra. If the
+     * target can not be reached, only the target.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalBfs(Vertex<T> source, Vertex<T> target) {
+        return toVertices(BidirectionalSearch.bfs(vertices.size(), this::forEachEdge, indexOfVertex(source), indexOfVertex(target)));
+    }
+
+    /**
+     * The function finds the shortest path between two vertices with a Dijkstra search from each of
+     * them, stopping when no path shorter than the best one where they met can be found.
+     *
+     * @param source The vertex where the path starts.
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the shortest path, from the target back to the source, like dijkstra.
+     * If the target can not be reached, only the target.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalDijkstra(Vertex<T> source, Vertex<T> target) {
+        return toVertices(BidirectionalSearch.dijkstra(vertices.size(), this::forEachEdge, indexOfVertex(source), indexOfVertex(target)));
+    }
+
+    /**
+     * The function runs the A* algorithm between two vertices without touching them.
+     *
+     * @param start The vertex from which the shortest path starts.
+     * @param goal The vertex where the search stops.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return A Traversal with the vertices in the order they were settled, their distances and the
+     * predecessors of the path.
+     */
+    @Override
+    public Traversal<T> aStarTraversal(Vertex<T> start, Vertex<T> goal, Heuristic<T> heuristic) {
+        return dijkstra(indexOfVertex(start), indexOfVertex(goal), heuristic);
+    }
+
+    /**
+     * The function computes the shortest distance from a vertex to every other one with Dijkstra's
+     * algorithm, without touching the vertices.
+     *
+     * @param source The vertex from which the shortest paths start.
+     * @return A Traversal with the vertices in the order they were settled, their distances and the
+     * shortest path tree.
+     */
+    @Override
+    public Traversal<T> dijkstraTraversal(Vertex<T> source) {
+        return dijkstra(indexOfVertex(source), Traversal.NO_VERTEX, null);
+    }
+
+    /**
+     * The function runs Dijkstra's algorithm over the CSR rows, with an IndexedMinHeap as priority
+     * queue. With a heuristic, the key of a vertex also adds its estimate to the end vertex, which
+     * turns the search into A*.
+     *
+     * @param start The index of the source vertex.
+     * @param end The index where the search can stop, or Traversal.NO_VERTEX to settle every reachable
+     * vertex.
+     * @param heuristic The estimate to the end vertex, or null for plain Dijkstra.
+     * @return The Traversal with the distances and the shortest path tree.
+     */
+    private Traversal<T> dijkstra(int start, int end, Heuristic<T> heuristic) {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+        T goal = heuristic == null ? null : vertices.get(end).getData();
+        boolean[] settled = new boolean[vertices.size()];
+        IndexedMinHeap heap = new IndexedMinHeap(vertices.size());
+        result.distance[start] = 0;
+        heap.push(start, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled[u] = true;
+            result.settle(u);
+            if (u == end) {
+                break;
+            }
+            for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                int v = targets[position];
+                int newDistance = result.distance[u] + weights[position];
+                if (!settled[v] && newDistance < result.distance[v]) {
+                    result.distance[v] = newDistance;
+                    result.predecessor[v] = u;
+                    heap.push(v, heuristic == null ? newDistance
+                            : newDistance + heuristic.estimate(vertices.get(v).getData(), goal));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The floydWarshall function finds the shortest distance between all pairs of vertices, using
+     * as many threads as the common ForkJoinPool.
+     *
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable.
+     */
+    @Override
+    public int[][] floydWarshall() {
+        return floydWarshall(ForkJoinPool.getCommonPoolParallelism());
+    }
+
+    /**
+     * The function runs the blocked Floyd-Warshall algorithm with the given number of threads. The
+     * matrix is initialized straight from the CSR rows.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable.
+     */
+    @Override
+    public int[][] floydWarshall(int parallelism) {
+        int size = vertices.size();
+        int[][] dist = new int[size][size];
+        for (int i = 0; i < size; i++) {
+            Arrays.fill(dist[i], Integer.MAX_VALUE);
+            for (int position = offsets[i]; position < offsets[i + 1]; position++) {
+                dist[i][targets[position]] = weights[position];
+            }
+            dist[i][i] = 0;
+        }
+        return BlockedFloydWarshall.solve(dist, parallelism);
+    }
+
+    /**
+     * The function computes the shortest distance between all pairs of vertices, choosing the
+     * algorithm by the shape of the graph. A sparse graph with no negative weight runs one Dijkstra
+     * per vertex with RepeatedDijkstra. A dense graph, or one with a negative weight, runs
+     * Floyd-Warshall. The graph is undirected, so a negative edge is already a negative cycle, which
+     * Floyd-Warshall reports with a negative diagonal.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A 2D array with the shortest distances, where Integer.MAX_VALUE means unreachable, the
+     * same contract as floydWarshall.
+     */
+    @Override
+    public int[][] allPairsShortestPaths(int parallelism) {
+        for (int weight : weights) {
+            if (weight < 0) {
+                return floydWarshall(parallelism);
+            }
+        }
+        if (!RepeatedDijkstra.isSparse(vertices.size(), targets.length)) {
+            return floydWarshall(parallelism);
+        }
+        return RepeatedDijkstra.solve(offsets, targets, weights, parallelism);
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Prim's algorithm and returns it as an
+     * adjacency list. If the graph is not connected, the result is a minimum spanning forest.
+     *
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyList<T> primAL() {
+        return primTraversal().buildForest(new GraphAdjacentyList<>());
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Kruskal's algorithm and returns it as an
+     * adjacency list.
+     *
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyList<T> kruskalAL() {
+        return Kruskal.buildForest(vertices, Kruskal.solve(vertices.size(), this::forEachEdge), new GraphAdjacentyList<>());
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Prim's algorithm and returns it as an
+     * adjacency matrix.
+     *
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyMatriz<T> primAM() {
+        return primTraversal().buildForest(new GraphAdjacentyMatriz<>());
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Kruskal's algorithm and returns it as an
+     * adjacency matrix.
+     *
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyMatriz<T> kruskalAM() {
+        return Kruskal.buildForest(vertices, Kruskal.solve(vertices.size(), this::forEachEdge), new GraphAdjacentyMatriz<>());
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Boruvka's algorithm, finding the cheapest
+     * edge that leaves every component in parallel rounds, and returns it as an adjacency list.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A new GraphAdjacentyList with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyList<T> boruvkaAL(int parallelism) {
+        return Kruskal.buildForest(vertices, boruvka(parallelism), new GraphAdjacentyList<>());
+    }
+
+    /**
+     * The function builds a minimum spanning tree with Boruvka's algorithm and returns it as an
+     * adjacency matrix.
+     *
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A new GraphAdjacentyMatriz with copies of the vertices and the edges of the tree.
+     */
+    @Override
+    public GraphAdjacentyMatriz<T> boruvkaAM(int parallelism) {
+        return Kruskal.buildForest(vertices, boruvka(parallelism), new GraphAdjacentyMatriz<>());
+    }
+
+    // The function returns the edges of the minimum spanning forest, with the indexes of the snapshot.
+    int[][] boruvka(int parallelism) {
+        return Boruvka.solve(offsets, targets, weights, parallelism);
+    }
+
+    /**
+     * The function returns a copy of the list of vertices, so the snapshot can not be changed
+     * through it.
+     *
+     * @return An ArrayList with the vertices of the graph in index order.
+     */
+    @Override
+    public ArrayList<Vertex<T>> getVertices() {
+        return new ArrayList<>(vertices);
+    }
+
+    @Override
+    public Vertex<T> getVertex(T keyVertex) {
+        return vertexIndex.find(keyVertex);
+    }
+
+    /**
+     * The function returns the vertices connected to the given one, read from its CSR row.
+     *
+     * @param vertex The vertex whose neighbors are wanted.
+     * @return A new ArrayList with the neighbors of the vertex.
+     */
+    @Override
+    public ArrayList<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        int row = indexOfVertex(vertex);
+        ArrayList<Vertex<T>> neighbors = new ArrayList<>(offsets[row + 1] - offsets[row]);
+        for (int position = offsets[row]; position < offsets[row + 1]; position++) {
+            neighbors.add(vertices.get(targets[position]));
+        }
+        return neighbors;
+    }
+
+    /**
+     * The snapshot is already frozen, so it is returned as it is.
+     *
+     * @return This graph.
+     */
+    @Override
+    public GraphCSR<T> freeze() {
+        return this;
+    }
+
+    /**
+     * The function returns the index of a vertex, which is also its row in the CSR arrays and in the
+     * matrix returned by floydWarshall.
+     *
+     * @param vertex The vertex to look for.
+     * @return The index of the vertex, or -1 if it is not in the graph.
+     */
+    public int indexOf(Vertex<T> vertex) {
+        return vertexIndex.indexOf(vertex);
+    }
+
+    /**
+     * The function returns the number of vertices of the snapshot.
+     *
+     * @return The number of vertices.
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * The function returns the number of undirected edges of the snapshot. Self loops are stored
+     * once, every other edge is stored in the row of both endpoints.
+     *
+     * @return The number of edges.
+     */
+    public int edgeCount() {
+        int loops = 0;
+        for (int u = 0; u < vertices.size(); u++) {
+            for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                if (targets[position] == u) {
+                    loops++;
+                }
+            }
+        }
+        return (targets.length - loops) / 2 + loops;
+    }
+
+    /**
+     * The function computes a minimum spanning forest with Prim's algorithm, starting a new tree
+     * from every vertex that was not reached by the previous ones. The vertices are not touched.
+     *
+     * @return A Traversal where the predecessor of every vertex is its parent in the forest and its
+     * distance is the weight of the edge to the parent.
+     */
+    @Override
+    public Traversal<T> primTraversal() {
+        Traversal<T> result = new Traversal<>(vertices, vertexIndex::indexOf, false);
+        int size = vertices.size();
+        boolean[] inTree = new boolean[size];
+        IndexedMinHeap heap = new IndexedMinHeap(size);
+
+        for (int root = 0; root < size; root++) {
+            if (inTree[root]) {
+                continue;
+            }
+            result.distance[root] = 0;
+            heap.push(root, 0);
+            while (!heap.isEmpty()) {
+                int u = heap.poll();
+                inTree[u] = true;
+                result.settle(u);
+                for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                    int v = targets[position];
+                    if (!inTree[v] && weights[position] < result.distance[v]) {
+                        result.distance[v] = weights[position];
+                        result.predecessor[v] = u;
+                        heap.push(v, weights[position]);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    // The function hands every edge of the vertex in an index to the visitor.
+    private void forEachEdge(int index, IntAdjacency.EdgeVisitor visitor) {
+        for (int position = offsets[index]; position < offsets[index + 1]; position++) {
+            visitor.visit(targets[position], weights[position]);
+        }
+    }
+
+    private ArrayList<Vertex<T>> toVertices(int[] indexes) {
+        ArrayList<Vertex<T>> result = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            result.add(vertices.get(index));
+        }
+        return result;
+    }
+
+    private int indexOfVertex(Vertex<T> vertex) {
+        int index = vertexIndex.indexOf(vertex);
+        if (index == -1) {
+            throw new GraphException("The vertex is not in the graph.");
+        }
+        return index;
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    int[] weights() {
+        return weights;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.pipegame.model;
+
+import java.util.function.ToIntFunction;
+
+/**
+ * The Heuristic interface estimates the length of the shortest path between the data of two
+ * vertices, and guides the A* search of the graphs towards the goal. For aStar to return a shortest
+ * path the estimate must be consistent: never negative, 0 from the goal to itself, and never larger
+ * than the weight of an edge plus the estimate from the other end of the edge.
+ */
+@FunctionalInterface
+public interface Heuristic<T> {
+
+    /**
+     * The function estimates the length of the shortest path between two vertices.
+     *
+     * @param from The data of the vertex where the path starts.
+     * @param goal The data of the vertex where the path ends.
+     * @return A lower bound of the length of the path.
+     */
+    int estimate(T from, T goal);
+
+    /**
+     * The function returns the heuristic that always estimates 0, which makes A* behave like
+     * Dijkstra's algorithm.
+     *
+     * @return The zero heuristic.
+     */
+    static <T> Heuristic<T> none() {
+        return (from, goal) -> 0;
+    }
+
+    /**
+     * The function returns the Manhattan distance between the grid cells of two vertices. It is
+     * consistent when every edge joins two cells next to each other and has a weight of at least 1,
+     * which is the case of the boards of the game.
+     *
+     * @param rowOf Tells the row of the cell of the data of a vertex.
+     * @param colOf Tells the column of the cell of the data of a vertex.
+     * @return The Manhattan heuristic.
+     */
+    static <T> Heuristic<T> manhattan(ToIntFunction<T> rowOf, ToIntFunction<T> colOf) {
+        return (from, goal) -> Math.abs(rowOf.applyAsInt(from) - rowOf.applyAsInt(goal))
+                + Math.abs(colOf.applyAsInt(from) - colOf.applyAsInt(goal));
+    }
+}
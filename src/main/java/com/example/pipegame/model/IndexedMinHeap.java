@@ -0,0 +1,119 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+
+/**
+ * The IndexedMinHeap class is a binary min-heap of int vertex ids ordered by an int key. It remembers
+ * the position of every id in the heap, so the key of an id that is already queued can be lowered in
+ * O(log n) instead of removing and adding it again, and every id is in the heap at most once. Equal
+ * keys are ordered by id, so the algorithms that use it are deterministic.
+ */
+final class IndexedMinHeap {
+
+    private static final int ABSENT = -1;
+
+    private final int[] heap;
+    private final int[] position;
+    private final int[] key;
+    private int size;
+
+    // The constructor creates an empty heap for the ids 0 .. capacity - 1.
+    IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key = new int[capacity];
+        Arrays.fill(position, ABSENT);
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int id) {
+        return position[id] != ABSENT;
+    }
+
+    /**
+     * The function queues an id with the given key, or lowers its key if it is already queued with a
+     * bigger one.
+     *
+     * @param id The vertex id.
+     * @param newKey The key of the id.
+     */
+    void push(int id, int newKey) {
+        if (position[id] == ABSENT) {
+            heap[size] = id;
+            position[id] = size;
+            key[id] = newKey;
+            siftUp(size++);
+        } else if (newKey < key[id]) {
+            key[id] = newKey;
+            siftUp(position[id]);
+        }
+    }
+
+    /**
+     * The function returns the smallest key in the heap without removing its id.
+     *
+     * @return The smallest key, or Integer.MAX_VALUE if the heap is empty.
+     */
+    int peekKey() {
+        return size == 0 ? Integer.MAX_VALUE : key[heap[0]];
+    }
+
+    /**
+     * The function removes the id with the smallest key.
+     *
+     * @return The id removed.
+     */
+    int poll() {
+        int top = heap[0];
+        position[top] = ABSENT;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int index) {
+        int id = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!less(id, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            position[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private void siftDown(int index) {
+        int id = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], id)) {
+                break;
+            }
+            heap[index] = heap[child];
+            position[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = id;
+        position[id] = index;
+    }
+
+    private boolean less(int a, int b) {
+        return key[a] < key[b] || (key[a] == key[b] && a < b);
+    }
+}
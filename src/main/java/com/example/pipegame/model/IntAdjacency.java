@@ -0,0 +1,17 @@
+package com.example.pipegame.model;
+
+/**
+ * The IntAdjacency interface lets a graph hand the edges of a vertex, as int ids and weights, to the
+ * search engines shared by all the implementations, like BidirectionalSearch and
+ * BucketShortestPaths.
+ */
+@FunctionalInterface
+interface IntAdjacency {
+
+    void forEachEdge(int vertex, EdgeVisitor visitor);
+
+    @FunctionalInterface
+    interface EdgeVisitor {
+        void visit(int neighbor, int weight);
+    }
+}
@@ -0,0 +1,433 @@
+package com.example.pipegame.model;
+import com.example.exception.GraphException;
+
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * The IntGraph class is an undirected graph over the cells of a grid where every vertex is the dense
+ * int id row * cols + col. There are no Vertex or Edge objects: the vertices present in the graph are
+ * a bitset and the adjacency is one int[] with four slots per cell, one for each Direction, holding
+ * the weight of the edge to the neighbor cell in that direction (0 means there is no edge). A cell
+ * costs a bit and four ints, so boards with millions of cells fit comfortably in memory.
+ */
+public class IntGraph {
+
+    public static final int NO_VERTEX = -1;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int rows;
+    private final int cols;
+    private final long[] present;
+    private final int[] weights;
+    private final int[] steps;
+    private int vertexCount;
+    // the components of the graph, kept up to date by the edge operations once it is enabled
+    private ConnectivityIndex connectivity;
+
+    // The constructor creates an empty graph for a grid of the given size. No cell is a vertex until
+    // it is added with addVertex.
+    public IntGraph(int rows, int cols) {
+        if (rows <= 0 || cols <= 0) {
+            throw new GraphException("The grid must have at least one row and one column.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        present = new long[(rows * cols + 63) >>> 6];
+        weights = new int[rows * cols * DIRECTIONS.length];
+        // id difference to the neighbor in each direction, valid whenever the slot holds an edge
+        steps = new int[DIRECTIONS.length];
+        steps[Direction.UP.ordinal()] = -cols;
+        steps[Direction.DOWN.ordinal()] = cols;
+        steps[Direction.RIGHT.ordinal()] = 1;
+        steps[Direction.LEFT.ordinal()] = -1;
+        vertexCount = 0;
+    }
+
+    /**
+     * The function returns the id of the cell in the given row and column.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return The id of the cell.
+     */
+    public int id(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new GraphException("The cell is outside of the grid.");
+        }
+        return row * cols + col;
+    }
+
+    public int row(int id) {
+        return id / cols;
+    }
+
+    public int col(int id) {
+        return id % cols;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    /**
+     * The function returns the number of cells of the grid, which is also the length that arrays
+     * indexed by vertex id must have.
+     *
+     * @return rows * cols.
+     */
+    public int size() {
+        return rows * cols;
+    }
+
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    public boolean containsVertex(int id) {
+        return id >= 0 && id < size() && (present[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * The function adds the cell with the given id as a vertex of the graph.
+     *
+     * @param id The id of the cell.
+     */
+    public void addVertex(int id) {
+        checkCell(id);
+        if (!containsVertex(id)) {
+            present[id >>> 6] |= 1L << id;
+            vertexCount++;
+        }
+    }
+
+    /**
+     * The function removes a vertex and all the edges that touch it.
+     *
+     * @param id The id of the cell.
+     */
+    public void removeVertex(int id) throws GraphException {
+        checkVertex(id);
+        for (Direction direction : DIRECTIONS) {
+            int neighbor = cellTowards(id, direction);
+            if (neighbor != NO_VERTEX) {
+                weights[slot(id, direction)] = 0;
+                weights[slot(neighbor, direction.opposite())] = 0;
+            }
+        }
+        present[id >>> 6] &= ~(1L << id);
+        vertexCount--;
+        if (connectivity != null) {
+            connectivity.vertexRemoved();
+        }
+    }
+
+    /**
+     * The function adds an undirected edge between two vertices in neighbor cells. If the edge already
+     * exists its weight is replaced.
+     *
+     * @param source The id of one of the cells.
+     * @param destination The id of a cell next to the source (up, down, left or right).
+     * @param weight The weight of the edge, it must be positive.
+     */
+    public void addEdge(int source, int destination, int weight) throws GraphException {
+        if (weight <= 0) {
+            throw new GraphException("The weight of an edge must be positive.");
+        }
+        Direction direction = directionBetween(source, destination);
+        weights[slot(source, direction)] = weight;
+        weights[slot(destination, direction.opposite())] = weight;
+        if (connectivity != null) {
+            connectivity.edgeAdded(source, destination);
+        }
+    }
+
+    /**
+     * The function removes the edge between two vertices in neighbor cells, if there is one.
+     *
+     * @param source The id of one of the cells.
+     * @param destination The id of a cell next to the source.
+     */
+    public void removeEdge(int source, int destination) throws GraphException {
+        Direction direction = directionBetween(source, destination);
+        weights[slot(source, direction)] = 0;
+        weights[slot(destination, direction.opposite())] = 0;
+        if (connectivity != null) {
+            connectivity.edgeRemoved(source, destination);
+        }
+    }
+
+    /**
+     * The function removes every edge and keeps the vertices.
+     */
+    public void removeAllEdges() {
+        Arrays.fill(weights, 0);
+        if (connectivity != null) {
+            connectivity.edgesCleared(size());
+        }
+    }
+
+    /**
+     * The function returns the weight of the edge between two cells.
+     *
+     * @param source The id of one of the cells.
+     * @param destination The id of the other cell.
+     * @return The weight of the edge, or 0 if the cells are not connected.
+     */
+    public int weight(int source, int destination) {
+        for (Direction direction : DIRECTIONS) {
+            if (cellTowards(source, direction) == destination) {
+                return weights[slot(source, direction)];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * The function returns the vertex connected to the given one in a direction.
+     *
+     * @param id The id of the cell.
+     * @param direction The direction to look at.
+     * @return The id of the connected neighbor, or NO_VERTEX if there is no edge in that direction.
+     */
+    public int neighbor(int id, Direction direction) {
+        return weights[slot(id, direction)] != 0 ? cellTowards(id, direction) : NO_VERTEX;
+    }
+
+    /**
+     * The function performs a breadth-first search from a vertex.
+     *
+     * @param source The id of the first vertex.
+     * @param predecessor An array of length size() that receives the predecessor of every reached
+     * vertex (NO_VERTEX for the source and the unreached ones), or null if it is not needed.
+     * @return The ids of the reached vertices in the order they were visited.
+     */
+    public int[] bfs(int source, int[] predecessor) throws GraphException {
+        checkVertex(source);
+        boolean[] visited = new boolean[size()];
+        int[] queue = new int[vertexCount];
+        if (predecessor != null) {
+            Arrays.fill(predecessor, NO_VERTEX);
+        }
+        int head = 0;
+        int tail = 0;
+        visited[source] = true;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            int base = u * DIRECTIONS.length;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                if (weights[base + d] != 0) {
+                    int v = u + steps[d];
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        if (predecessor != null) {
+                            predecessor[v] = u;
+                        }
+                        queue[tail++] = v;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * The function implements Dijkstra's algorithm between two vertices.
+     *
+     * @param source The id of the first vertex of the path.
+     * @param destination The id of the last vertex of the path.
+     * @return The ids of the shortest path from the destination back to the source, like the
+     * dijkstra method of IGraph. If the destination can not be reached, only the destination.
+     */
+    public int[] dijkstra(int source, int destination) throws GraphException {
+        return aStar(source, destination, null);
+    }
+
+    /**
+     * The function implements the A* algorithm between two vertices: the vertices are settled in
+     * order of their distance from the source plus the estimate of the heuristic to the destination.
+     *
+     * @param source The id of the first vertex of the path.
+     * @param destination The id of the last vertex of the path.
+     * @param heuristic Receives the ids of a vertex and of the destination and returns a consistent
+     * estimate of the distance between them, or null for Dijkstra's algorithm.
+     * @return The ids of the shortest path from the destination back to the source, like the
+     * dijkstra method of IGraph. If the destination can not be reached, only the destination.
+     */
+    public int[] aStar(int source, int destination, IntBinaryOperator heuristic) throws GraphException {
+        checkVertex(source);
+        checkVertex(destination);
+        int[] distance = new int[size()];
+        int[] predecessor = new int[size()];
+        boolean[] settled = new boolean[size()];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        Arrays.fill(predecessor, NO_VERTEX);
+
+        IndexedMinHeap heap = new IndexedMinHeap(size());
+        distance[source] = 0;
+        heap.push(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled[u] = true;
+            if (u == destination) {
+                break;
+            }
+            int base = u * DIRECTIONS.length;
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int weight = weights[base + d];
+                if (weight != 0) {
+                    int v = u + steps[d];
+                    int newDistance = distance[u] + weight;
+                    if (!settled[v] && newDistance < distance[v]) {
+                        distance[v] = newDistance;
+                        predecessor[v] = u;
+                        heap.push(v, heuristic == null ? newDistance
+                                : newDistance + heuristic.applyAsInt(v, destination));
+                    }
+                }
+            }
+        }
+
+        int length = 0;
+        for (int current = destination; current != NO_VERTEX; current = predecessor[current]) {
+            length++;
+        }
+        int[] path = new int[length];
+        int position = 0;
+        for (int current = destination; current != NO_VERTEX; current = predecessor[current]) {
+            path[position++] = current;
+        }
+        return path;
+    }
+
+    /**
+     * The function tells if there is a path between two vertices, stopping as soon as the
+     * destination is seen.
+     *
+     * @param source The id of the vertex where the search begins.
+     * @param destination The id of the vertex searched.
+     * @return true if the destination can be reached from the source.
+     */
+    public boolean isReachable(int source, int destination) throws GraphException {
+        checkVertex(source);
+        checkVertex(destination);
+        return Reachability.test(size(), this::forEachEdge, source, destination);
+    }
+
+    /**
+     * The function starts keeping the connected components of the graph up to date on every change
+     * of its edges. Calling it again has no effect.
+     */
+    public void enableConnectivityIndex() {
+        if (connectivity == null) {
+            connectivity = new ConnectivityIndex(size(), this::forEachEdge);
+        }
+    }
+
+    /**
+     * The function tells if there is a path between two vertices, from the connectivity index if it
+     * is enabled or with isReachable otherwise.
+     *
+     * @param a The id of the first vertex.
+     * @param b The id of the second vertex.
+     * @return true if the vertices are in the same component.
+     */
+    public boolean connected(int a, int b) throws GraphException {
+        if (connectivity == null) {
+            return isReachable(a, b);
+        }
+        checkVertex(a);
+        checkVertex(b);
+        return connectivity.connected(a, b, size(), this::forEachEdge);
+    }
+
+    /**
+     * The function finds a path with the fewest edges between two vertices with a breadth-first
+     * search from each of them, stopping when they meet.
+     *
+     * @param source The id of the first vertex of the path.
+     * @param destination The id of the last vertex of the path.
+     * @return The ids of the path from the destination back to the source, like dijkstra. If the
+     * destination can not be reached, only the destination.
+     */
+    public int[] bidirectionalBfs(int source, int destination) throws GraphException {
+        checkVertex(source);
+        checkVertex(destination);
+        return BidirectionalSearch.bfs(size(), this::forEachEdge, source, destination);
+    }
+
+    /**
+     * The function finds the shortest path between two vertices with a Dijkstra search from each of
+     * them, stopping when no shorter path can be found.
+     *
+     * @param source The id of the first vertex of the path.
+     * @param destination The id of the last vertex of the path.
+     * @return The ids of the shortest path from the destination back to the source, like dijkstra. If
+     * the destination can not be reached, only the destination.
+     */
+    public int[] bidirectionalDijkstra(int source, int destination) throws GraphException {
+        checkVertex(source);
+        checkVertex(destination);
+        return BidirectionalSearch.dijkstra(size(), this::forEachEdge, source, destination);
+    }
+
+    // The function hands every edge of a cell to the visitor.
+    void forEachEdge(int id, IntAdjacency.EdgeVisitor visitor) {
+        int base = id * DIRECTIONS.length;
+        for (int d = 0; d < DIRECTIONS.length; d++) {
+            int weight = weights[base + d];
+            if (weight != 0) {
+                visitor.visit(id + steps[d], weight);
+            }
+        }
+    }
+
+    /**
+     * The function returns the id of the cell next to the given one in a direction.
+     *
+     * @param id The id of the cell.
+     * @param direction The direction to move.
+     * @return The id of the neighbor cell, or NO_VERTEX if the move leaves the grid.
+     */
+    int cellTowards(int id, Direction direction) {
+        switch (direction) {
+            case UP -> {return id >= cols ? id - cols : NO_VERTEX;}
+            case DOWN -> {return id + cols < size() ? id + cols : NO_VERTEX;}
+            case RIGHT -> {return id % cols != cols - 1 ? id + 1 : NO_VERTEX;}
+            default -> {return id % cols != 0 ? id - 1 : NO_VERTEX;}
+        }
+    }
+
+    private Direction directionBetween(int source, int destination) {
+        checkVertex(source);
+        checkVertex(destination);
+        for (Direction direction : DIRECTIONS) {
+            if (cellTowards(source, direction) == destination) {
+                return direction;
+            }
+        }
+        throw new GraphException("The vertices must be in neighbor cells.");
+    }
+
+    private int slot(int id, Direction direction) {
+        return id * DIRECTIONS.length + direction.ordinal();
+    }
+
+    private void checkCell(int id) {
+        if (id < 0 || id >= size()) {
+            throw new GraphException("The cell is outside of the grid.");
+        }
+    }
+
+    private void checkVertex(int id) {
+        if (!containsVertex(id)) {
+            throw new GraphException("The vertex is not in the graph.");
+        }
+    }
+}
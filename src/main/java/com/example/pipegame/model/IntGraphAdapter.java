@@ -0,0 +1,391 @@
+package com.example.pipegame.model;
+import com.example.exception.GraphException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * The IntGraphAdapter class lets code written against IGraph, like the GameController, use an
+ * IntGraph. A vertex is found by the id of the cell its data sits in, row * cols + col, so the adapter
+ * keeps nothing per vertex but the reference in the slot of its cell; the edges and the traversals
+ * live in the primitive arrays of the IntGraph. The data of a vertex must stay in the same cell while
+ * the vertex is in the graph. The vertices do not get neighbors and the traversals do not write
+ * color, distance or predecessor on them.
+ *
+ * The queries that are not grid specific (dfs, floydWarshall, the spanning trees and the queries
+ * that return a Traversal) run on the CSR snapshot returned by freeze(). The snapshot is kept until
+ * a vertex or an edge changes, so the IntGraph must only be changed through the adapter.
+ */
+public class IntGraphAdapter<T> implements IGraph<T> {
+
+    private final IntGraph grid;
+    private final ToIntFunction<T> rowOf;
+    private final ToIntFunction<T> colOf;
+    // the vertex in every cell, null for the empty ones
+    private final ArrayList<Vertex<T>> vertexById;
+    // the CSR snapshot of the current graph, null once a vertex or an edge changed
+    private GraphCSR<T> snapshot;
+
+    // The constructor wraps an empty IntGraph. The two functions tell the row and the column of the
+    // cell that holds the data of a vertex.
+    public IntGraphAdapter(IntGraph grid, ToIntFunction<T> rowOf, ToIntFunction<T> colOf) {
+        this.grid = grid;
+        this.rowOf = rowOf;
+        this.colOf = colOf;
+        vertexById = new ArrayList<>(grid.size());
+        for (int id = 0; id < grid.size(); id++) {
+            vertexById.add(null);
+        }
+    }
+
+    /**
+     * The addVertex function places a vertex in the cell given by its data.
+     *
+     * @param vertex The vertex to add. Its cell must not hold another vertex.
+     */
+    @Override
+    public void addVertex(Vertex<T> vertex) throws GraphException {
+        int id = cellOf(vertex.getData());
+        if (grid.containsVertex(id)) {
+            throw new GraphException("The cell already holds a vertex.");
+        }
+        grid.addVertex(id);
+        vertexById.set(id, vertex);
+        snapshot = null;
+    }
+
+    /**
+     * The function finds the vertex in the cell of the given data, if it holds that data.
+     *
+     * @param data The data of the vertex to find.
+     * @return The vertex that holds the data, or null if there is none.
+     */
+    @Override
+    public Vertex<T> findVertex(T data) {
+        int row = rowOf.applyAsInt(data);
+        int col = colOf.applyAsInt(data);
+        if (row < 0 || row >= grid.getRows() || col < 0 || col >= grid.getCols()) {
+            return null;
+        }
+        Vertex<T> vertex = vertexById.get(grid.id(row, col));
+        return vertex != null && Objects.equals(vertex.getData(), data) ? vertex : null;
+    }
+
+    @Override
+    public void removeVertex(Vertex<T> vertex) throws GraphException {
+        int id = idOf(vertex);
+        grid.removeVertex(id);
+        vertexById.set(id, null);
+        snapshot = null;
+    }
+
+    @Override
+    public void addEdge(Vertex<T> source, Vertex<T> destination, int weight) throws GraphException {
+        grid.addEdge(idOf(source), idOf(destination), weight);
+        snapshot = null;
+    }
+
+    @Override
+    public void removeEdge(Vertex<T> source, Vertex<T> destination) throws GraphException {
+        grid.removeEdge(idOf(source), idOf(destination));
+        snapshot = null;
+    }
+
+    @Override
+    public ArrayList<Vertex<T>> dfs(Vertex<T> startVertex) {
+        return freeze().dfs(startVertex);
+    }
+
+    /**
+     * The function runs the breadth-first search of the IntGraph and maps the visited ids back to
+     * their vertices.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return An ArrayList with the vertices in the order they were visited.
+     */
+    @Override
+    public ArrayList<Vertex<T>> bfs(Vertex<T> startVertex) {
+        return toVertices(grid.bfs(idOf(startVertex), null));
+    }
+
+    /**
+     * The function runs Dijkstra's algorithm of the IntGraph and maps the path back to vertices.
+     *
+     * @param startVertex The vertex from which the shortest path starts.
+     * @param endVertex The vertex where the shortest path ends.
+     * @return An ArrayList with the shortest path, from the end vertex back to the start vertex.
+     */
+    @Override
+    public ArrayList<Vertex<T>> dijkstra(Vertex<T> startVertex, Vertex<T> endVertex) {
+        return toVertices(grid.dijkstra(idOf(startVertex), idOf(endVertex)));
+    }
+
+    /**
+     * The function runs the A* algorithm of the IntGraph, asking the heuristic about the data of the
+     * vertices in the cells, and maps the path back to vertices.
+     *
+     * @param startVertex The vertex from which the shortest path starts.
+     * @param goalVertex The vertex where the shortest path ends.
+     * @param heuristic A consistent estimate of the distance between two vertices.
+     * @return An ArrayList with the shortest path, from the goal vertex back to the start vertex.
+     */
+    @Override
+    public ArrayList<Vertex<T>> aStar(Vertex<T> startVertex, Vertex<T> goalVertex, Heuristic<T> heuristic) {
+        T goal = goalVertex.getData();
+        return toVertices(grid.aStar(idOf(startVertex), idOf(goalVertex),
+                (id, goalId) -> heuristic.estimate(vertexById.get(id).getData(), goal)));
+    }
+
+    @Override
+    public Traversal<T> bfsTraversal(Vertex<T> startVertex) {
+        return freeze().bfsTraversal(startVertex);
+    }
+
+    /**
+     * The function returns the vertices of a breadth-first search as a lazy stream: the graph is only
+     * expanded as the stream is consumed, so a search that stops at a target does not visit the rest
+     * of the graph. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as bfs.
+     */
+    @Override
+    public Stream<Vertex<T>> bfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.bfs(grid.size(), grid::forEachEdge, vertexById::get, idOf(startVertex));
+    }
+
+    /**
+     * The function returns the vertices of a depth-first search as a lazy stream, in the order they
+     * are discovered. The vertices are not modified.
+     *
+     * @param startVertex The vertex from which the search will begin.
+     * @return A sequential Stream with the vertices in the same order as dfs.
+     */
+    @Override
+    public Stream<Vertex<T>> dfsStream(Vertex<T> startVertex) {
+        return LazyTraversal.dfs(grid.size(), grid::forEachEdge, vertexById::get, idOf(startVertex));
+    }
+
+    @Override
+    public Traversal<T> dfsTraversal(Vertex<T> startVertex) {
+        return freeze().dfsTraversal(startVertex);
+    }
+
+    @Override
+    public Traversal<T> dijkstraTraversal(Vertex<T> startVertex) {
+        return freeze().dijkstraTraversal(startVertex);
+    }
+
+    @Override
+    public boolean isReachable(Vertex<T> source, Vertex<T> target) {
+        return grid.isReachable(idOf(source), idOf(target));
+    }
+
+    @Override
+    public void enableConnectivityIndex() {
+        grid.enableConnectivityIndex();
+    }
+
+    @Override
+    public boolean connected(Vertex<T> a, Vertex<T> b) {
+        return grid.connected(idOf(a), idOf(b));
+    }
+
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalBfs(Vertex<T> source, Vertex<T> target) {
+        return toVertices(grid.bidirectionalBfs(idOf(source), idOf(target)));
+    }
+
+    @Override
+    public ArrayList<Vertex<T>> bidirectionalDijkstra(Vertex<T> source, Vertex<T> target) {
+        return toVertices(grid.bidirectionalDijkstra(idOf(source), idOf(target)));
+    }
+
+    @Override
+    public Traversal<T> aStarTraversal(Vertex<T> startVertex, Vertex<T> goalVertex, Heuristic<T> heuristic) {
+        return freeze().aStarTraversal(startVertex, goalVertex, heuristic);
+    }
+
+    @Override
+    public Traversal<T> primTraversal() {
+        return freeze().primTraversal();
+    }
+
+    @Override
+    public int[][] floydWarshall() {
+        return freeze().floydWarshall();
+    }
+
+    @Override
+    public int[][] floydWarshall(int parallelism) {
+        return freeze().floydWarshall(parallelism);
+    }
+
+    @Override
+    public int[][] allPairsShortestPaths(int parallelism) {
+        return freeze().allPairsShortestPaths(parallelism);
+    }
+
+    @Override
+    public GraphAdjacentyList<T> primAL() {
+        return freeze().primAL();
+    }
+
+    @Override
+    public GraphAdjacentyList<T> kruskalAL() {
+        return freeze().kruskalAL();
+    }
+
+    @Override
+    public GraphAdjacentyMatriz<T> primAM() {
+        return freeze().primAM();
+    }
+
+    @Override
+    public GraphAdjacentyMatriz<T> kruskalAM() {
+        return freeze().kruskalAM();
+    }
+
+    @Override
+    public GraphAdjacentyList<T> boruvkaAL(int parallelism) {
+        return freeze().boruvkaAL(parallelism);
+    }
+
+    @Override
+    public GraphAdjacentyMatriz<T> boruvkaAM(int parallelism) {
+        return freeze().boruvkaAM(parallelism);
+    }
+
+    @Override
+    public void removeAllEdges() {
+        grid.removeAllEdges();
+        snapshot = null;
+    }
+
+    /**
+     * The function returns the vertices of the graph in the order of their cells.
+     *
+     * @return A new ArrayList with the vertices.
+     */
+    @Override
+    public ArrayList<Vertex<T>> getVertices() {
+        ArrayList<Vertex<T>> vertices = new ArrayList<>(grid.vertexCount());
+        for (Vertex<T> vertex : vertexById) {
+            if (vertex != null) {
+                vertices.add(vertex);
+            }
+        }
+        return vertices;
+    }
+
+    @Override
+    public Vertex<T> getVertex(T keyVertex) {
+        return findVertex(keyVertex);
+    }
+
+    /**
+     * The function returns the vertices connected to the given one, read from the four slots of its
+     * cell.
+     *
+     * @param vertex The vertex whose neighbors are wanted.
+     * @return A new ArrayList with the neighbors.
+     */
+    @Override
+    public ArrayList<Vertex<T>> getNeighbors(Vertex<T> vertex) {
+        int id = idOf(vertex);
+        ArrayList<Vertex<T>> neighbors = new ArrayList<>(4);
+        for (Direction direction : Direction.values()) {
+            int neighbor = grid.neighbor(id, direction);
+            if (neighbor != IntGraph.NO_VERTEX) {
+                neighbors.add(vertexById.get(neighbor));
+            }
+        }
+        return neighbors;
+    }
+
+    /**
+     * The function returns a CSR snapshot whose rows follow the order of getVertices(). The snapshot
+     * is built once and returned again until a vertex or an edge changes.
+     *
+     * @return A GraphCSR with the same vertices and edges.
+     */
+    @Override
+    public GraphCSR<T> freeze() {
+        if (snapshot == null) {
+            snapshot = buildSnapshot();
+        }
+        return snapshot;
+    }
+
+    private GraphCSR<T> buildSnapshot() {
+        ArrayList<Vertex<T>> vertices = new ArrayList<>(grid.vertexCount());
+        int[] idByRow = new int[grid.vertexCount()];
+        int[] rowById = new int[grid.size()];
+        for (int id = 0; id < grid.size(); id++) {
+            if (vertexById.get(id) != null) {
+                rowById[id] = vertices.size();
+                idByRow[vertices.size()] = id;
+                vertices.add(vertexById.get(id));
+            }
+        }
+        int size = vertices.size();
+        int[] offsets = new int[size + 1];
+        int[] targets = new int[size * 4];
+        int[] weights = new int[size * 4];
+        int position = 0;
+        for (int i = 0; i < size; i++) {
+            int id = idByRow[i];
+            for (Direction direction : Direction.values()) {
+                int neighbor = grid.neighbor(id, direction);
+                if (neighbor != IntGraph.NO_VERTEX) {
+                    targets[position] = rowById[neighbor];
+                    weights[position] = grid.weight(id, neighbor);
+                    position++;
+                }
+            }
+            offsets[i + 1] = position;
+        }
+        return new GraphCSR<>(vertices, offsets, Arrays.copyOf(targets, position),
+                Arrays.copyOf(weights, position));
+    }
+
+    /**
+     * The function returns the IntGraph behind the adapter. Changing it directly leaves the snapshot
+     * of freeze() out of date.
+     *
+     * @return The wrapped IntGraph.
+     */
+    public IntGraph getGrid() {
+        return grid;
+    }
+
+    /**
+     * The function returns the id of the cell of a vertex, taken from the row and the column of its
+     * data.
+     *
+     * @param vertex The vertex to look for.
+     * @return The id of its cell.
+     */
+    public int idOf(Vertex<T> vertex) throws GraphException {
+        int id = cellOf(vertex.getData());
+        if (vertexById.get(id) != vertex) {
+            throw new GraphException("The vertex is not in the graph.");
+        }
+        return id;
+    }
+
+    private int cellOf(T data) {
+        return grid.id(rowOf.applyAsInt(data), colOf.applyAsInt(data));
+    }
+
+    private ArrayList<Vertex<T>> toVertices(int[] ids) {
+        ArrayList<Vertex<T>> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(vertexById.get(id));
+        }
+        return result;
+    }
+}
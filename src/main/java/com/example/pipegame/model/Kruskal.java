@@ -0,0 +1,116 @@
+package com.example.pipegame.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The Kruskal class computes a minimum spanning forest with Kruskal's algorithm for any graph that
+ * can hand its edges as int ids. Every undirected edge is read once, from its smaller endpoint, into
+ * a primitive array of longs that holds the weight in the high half and the position of the edge in
+ * the low half, so sorting the array sorts the edges by weight and, for equal weights, in the order
+ * they were read. The graph itself is never reordered.
+ *
+ * From PARALLEL_SORT_THRESHOLD edges on the array is sorted with Arrays.parallelSort, which splits
+ * the work over the common ForkJoinPool. The components are joined with a UnionFind.
+ */
+final class Kruskal implements IntAdjacency.EdgeVisitor {
+
+    // below this number of edges a parallel sort costs more than it saves
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
+    private int current;
+    private int count;
+    private long[] sortedEdges = new long[16];
+    private int[] edgeSource = new int[16];
+    private int[] edgeTarget = new int[16];
+    private int[] edgeWeight = new int[16];
+
+    private Kruskal() {
+    }
+
+    /**
+     * The function computes a minimum spanning forest. If the graph is not connected, every
+     * component gets its own tree.
+     *
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph. Every edge has to be handed from both of its endpoints.
+     * @return Three arrays with the source, the target and the weight of every edge of the forest.
+     */
+    static int[][] solve(int size, IntAdjacency adjacency) {
+        Kruskal edges = new Kruskal();
+        for (int u = 0; u < size; u++) {
+            edges.current = u;
+            adjacency.forEachEdge(u, edges);
+        }
+        return edges.forest(size);
+    }
+
+    @Override
+    public void visit(int neighbor, int weight) {
+        if (current >= neighbor) {
+            return;
+        }
+        if (count == edgeSource.length) {
+            int capacity = count * 2;
+            sortedEdges = Arrays.copyOf(sortedEdges, capacity);
+            edgeSource = Arrays.copyOf(edgeSource, capacity);
+            edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+            edgeWeight = Arrays.copyOf(edgeWeight, capacity);
+        }
+        edgeSource[count] = current;
+        edgeTarget[count] = neighbor;
+        edgeWeight[count] = weight;
+        sortedEdges[count] = LongHeap.pack(weight, count);
+        count++;
+    }
+
+    private int[][] forest(int size) {
+        if (count >= PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(sortedEdges, 0, count);
+        } else {
+            Arrays.sort(sortedEdges, 0, count);
+        }
+        UnionFind components = new UnionFind(size);
+        int treeSize = Math.max(0, size - 1);
+        int[] treeSource = new int[treeSize];
+        int[] treeTarget = new int[treeSize];
+        int[] treeWeight = new int[treeSize];
+        int accepted = 0;
+        for (int i = 0; i < count && accepted < treeSize; i++) {
+            int edge = LongHeap.index(sortedEdges[i]);
+            if (components.union(edgeSource[edge], edgeTarget[edge])) {
+                treeSource[accepted] = edgeSource[edge];
+                treeTarget[accepted] = edgeTarget[edge];
+                treeWeight[accepted] = edgeWeight[edge];
+                accepted++;
+            }
+        }
+        return new int[][]{Arrays.copyOf(treeSource, accepted), Arrays.copyOf(treeTarget, accepted),
+                Arrays.copyOf(treeWeight, accepted)};
+    }
+
+    /**
+     * The function copies every vertex into the given empty graph and adds the edges of a spanning
+     * forest between the copies.
+     *
+     * @param vertexById The vertex of every id of the graph, null for the ids that are not in use.
+     * @param forest The arrays that describe the edges of the forest, as returned by solve.
+     * @param tree The empty graph that will hold the result.
+     * @return The same graph received, filled.
+     */
+    static <T, G extends IGraph<T>> G buildForest(List<Vertex<T>> vertexById, int[][] forest, G tree) {
+        ArrayList<Vertex<T>> copies = new ArrayList<>(vertexById.size());
+        for (Vertex<T> vertex : vertexById) {
+            Vertex<T> copy = vertex == null ? null : new Vertex<>(vertex.getData());
+            copies.add(copy);
+            if (copy != null) {
+                tree.addVertex(copy);
+            }
+        }
+        for (int i = 0; i < forest[0].length; i++) {
+            tree.addEdge(copies.get(forest[0][i]), copies.get(forest[1][i]), forest[2][i]);
+        }
+        return tree;
+    }
+}
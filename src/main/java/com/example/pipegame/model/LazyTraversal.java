@@ -0,0 +1,159 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * The LazyTraversal class is an Iterator over the vertices of a breadth-first or depth-first search
+ * that only expands the graph as it is consumed: the neighbors of a vertex are read when the vertex
+ * after it is asked for. A caller that stops at the first sighting of a target, for example with
+ * anyMatch on the stream, never touches the rest of the graph. The order is the same as the one of
+ * the bfs and dfs methods of the graph, and the vertices are not modified.
+ *
+ * The visited set is a bitset and the queue or stack are int arrays owned by the iterator, so several
+ * iterators can be consumed at the same time. The graph must not change while an iterator is in use.
+ */
+final class LazyTraversal<T> implements Iterator<Vertex<T>>, IntAdjacency.EdgeVisitor {
+
+    private static final int NONE = -1;
+
+    private final IntAdjacency adjacency;
+    private final IntFunction<Vertex<T>> vertexOf;
+    private final boolean depthFirst;
+    private final long[] visited;
+    // the queue of a breadth-first search is pending[head..tail), the stack of a depth-first one
+    // pending[0..tail)
+    private int[] pending;
+    private int head;
+    private int tail;
+    private int[] neighbors;
+    private int neighborCount;
+    private int toExpand;
+
+    private LazyTraversal(int size, IntAdjacency adjacency, IntFunction<Vertex<T>> vertexOf, int start, boolean depthFirst) {
+        this.adjacency = adjacency;
+        this.vertexOf = vertexOf;
+        this.depthFirst = depthFirst;
+        visited = new long[(size + 63) >>> 6];
+        pending = new int[depthFirst ? 16 : Math.max(1, size)];
+        neighbors = new int[4];
+        pending[tail++] = start;
+        if (!depthFirst) {
+            mark(start);
+        }
+        toExpand = NONE;
+    }
+
+    /**
+     * The function returns the vertices of a breadth-first search as a lazy sequential stream.
+     *
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @param vertexOf Translates an id to its vertex.
+     * @param start The id of the vertex where the search begins.
+     * @return A Stream with the vertices in the order they are visited.
+     */
+    static <T> Stream<Vertex<T>> bfs(int size, IntAdjacency adjacency, IntFunction<Vertex<T>> vertexOf, int start) {
+        return stream(new LazyTraversal<>(size, adjacency, vertexOf, start, false));
+    }
+
+    /**
+     * The function returns the vertices of a depth-first search, in the order they are discovered,
+     * as a lazy sequential stream.
+     *
+     * @param size The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @param vertexOf Translates an id to its vertex.
+     * @param start The id of the vertex where the search begins.
+     * @return A Stream with the vertices in the order they are discovered.
+     */
+    static <T> Stream<Vertex<T>> dfs(int size, IntAdjacency adjacency, IntFunction<Vertex<T>> vertexOf, int start) {
+        return stream(new LazyTraversal<>(size, adjacency, vertexOf, start, true));
+    }
+
+    private static <T> Stream<Vertex<T>> stream(LazyTraversal<T> iterator) {
+        int characteristics = Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, characteristics), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (toExpand != NONE) {
+            expand(toExpand);
+            toExpand = NONE;
+        }
+        if (depthFirst) {
+            while (tail > 0 && isMarked(pending[tail - 1])) {
+                tail--;
+            }
+            return tail > 0;
+        }
+        return head < tail;
+    }
+
+    @Override
+    public Vertex<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int vertex;
+        if (depthFirst) {
+            vertex = pending[--tail];
+            mark(vertex);
+        } else {
+            vertex = pending[head++];
+        }
+        toExpand = vertex;
+        return vertexOf.apply(vertex);
+    }
+
+    /**
+     * The function queues the neighbors of a vertex that have not been visited. A depth-first search
+     * pushes them in reverse order, so the first neighbor is the first one popped, like in the
+     * recursive search.
+     *
+     * @param vertex The id of the vertex.
+     */
+    private void expand(int vertex) {
+        neighborCount = 0;
+        adjacency.forEachEdge(vertex, this);
+        if (depthFirst) {
+            if (tail + neighborCount > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, tail + neighborCount));
+            }
+            for (int i = neighborCount - 1; i >= 0; i--) {
+                pending[tail++] = neighbors[i];
+            }
+        }
+    }
+
+    @Override
+    public void visit(int neighbor, int weight) {
+        if (isMarked(neighbor)) {
+            return;
+        }
+        if (depthFirst) {
+            if (neighborCount == neighbors.length) {
+                neighbors = Arrays.copyOf(neighbors, neighborCount * 2);
+            }
+            neighbors[neighborCount++] = neighbor;
+        } else {
+            mark(neighbor);
+            pending[tail++] = neighbor;
+        }
+    }
+
+    private void mark(int vertex) {
+        visited[vertex >>> 6] |= 1L << vertex;
+    }
+
+    private boolean isMarked(int vertex) {
+        return (visited[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+}
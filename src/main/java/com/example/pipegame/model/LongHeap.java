@@ -0,0 +1,99 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+
+/**
+ * The LongHeap class is a binary min-heap of primitive longs. The shortest path and spanning tree
+ * algorithms over int vertex indexes use it as a priority queue by packing the priority in the high
+ * half of the long and the vertex index in the low half, so the natural order of the longs is the
+ * order of the priorities. Outdated entries are not removed; the algorithms skip them when polled.
+ */
+final class LongHeap {
+
+    private long[] heap;
+    private int size;
+
+    // The constructor creates an empty heap with room for the given number of entries. The heap
+    // grows if more entries are pushed.
+    LongHeap(int capacity) {
+        heap = new long[Math.max(1, capacity)];
+        size = 0;
+    }
+
+    /**
+     * The function packs a priority and a vertex index in one long.
+     *
+     * @param priority The priority of the entry, it can be negative.
+     * @param index The vertex index, it must not be negative.
+     * @return The packed entry.
+     */
+    static long pack(int priority, int index) {
+        return ((long) priority << 32) | index;
+    }
+
+    /**
+     * The function returns the vertex index of a packed entry.
+     *
+     * @param entry An entry created by pack.
+     * @return The vertex index stored in the low half of the entry.
+     */
+    static int index(long entry) {
+        return (int) entry;
+    }
+
+    /**
+     * The function returns the priority of a packed entry.
+     *
+     * @param entry An entry created by pack.
+     * @return The priority stored in the high half of the entry.
+     */
+    static int priority(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    void push(long entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int position = size++;
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heap[parent] <= entry) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = entry;
+    }
+
+    long poll() {
+        long top = heap[0];
+        long last = heap[--size];
+        int position = 0;
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        if (size > 0) {
+            heap[position] = last;
+        }
+        return top;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
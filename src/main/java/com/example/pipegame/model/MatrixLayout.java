@@ -0,0 +1,15 @@
+package com.example.pipegame.model;
+
+/**
+ * The MatrixLayout enum tells a GraphAdjacentyMatriz how to store its adjacency matrix.
+ */
+public enum MatrixLayout {
+    // one int[] per row
+    JAGGED,
+    // a single int[] with the rows one after the other, limited to 46340 vertices
+    FLAT,
+    // direct ByteBuffers outside of the Java heap, split in chunks of rows
+    OFF_HEAP,
+    // one bit per cell in long[] rows, only for graphs whose edges all have weight 1
+    BITSET
+}
@@ -3,11 +3,129 @@ package com.example.pipegame.model;
 // The code snippet is defining an enumeration called `PipeType`. An enumeration is a special type in
 // Java that represents a fixed set of constants. In this case, the `PipeType` enumeration represents
 // different types of pipes that can be used in a pipe game.
+//
+// Every type keeps its openings as a 4-bit mask with one bit per Direction (UP, DOWN, RIGHT and LEFT,
+// in that order), so checking if two pipes connect is a lookup in a table built once for the 16
+// possible masks of each side and the 4 directions.
 public enum PipeType {
-    VERTICAL,
-    HORIZONTAL,
-    ELBOW_UP_RIGHT,
-    ELBOW_UP_LEFT,
-    ELBOW_DOWN_RIGHT,
-    ELBOW_DOWN_LEFT;
+    VERTICAL(Direction.UP, Direction.DOWN),
+    HORIZONTAL(Direction.LEFT, Direction.RIGHT),
+    ELBOW_UP_RIGHT(Direction.UP, Direction.RIGHT),
+    ELBOW_UP_LEFT(Direction.UP, Direction.LEFT),
+    ELBOW_DOWN_RIGHT(Direction.DOWN, Direction.RIGHT),
+    ELBOW_DOWN_LEFT(Direction.DOWN, Direction.LEFT);
+
+    // CONNECTIONS[direction << 8 | mask << 4 | neighborMask] tells if a cell with the first mask
+    // connects with the neighbor in that direction
+    private static final boolean[] CONNECTIONS = new boolean[4 << 8];
+
+    static {
+        for (Direction direction : Direction.values()) {
+            int side = bit(direction);
+            int facing = bit(direction.opposite());
+            for (int mask = 0; mask < 16; mask++) {
+                for (int neighborMask = 0; neighborMask < 16; neighborMask++) {
+                    CONNECTIONS[direction.ordinal() << 8 | mask << 4 | neighborMask] =
+                            (mask & side) != 0 && (neighborMask & facing) != 0;
+                }
+            }
+        }
+    }
+
+    private final int openings;
+
+    PipeType(Direction first, Direction second) {
+        openings = bit(first) | bit(second);
+    }
+
+    /**
+     * The function returns the openings of the pipe.
+     *
+     * @return A mask with the bit of every side where the pipe is open.
+     */
+    public int openings() {
+        return openings;
+    }
+
+    /**
+     * The function tells if the pipe has an opening on one of its sides, so water can go in or out
+     * through it.
+     *
+     * @param direction The side of the cell.
+     * @return true if the pipe is open towards that side.
+     */
+    public boolean opensTo(Direction direction) {
+        return (openings & bit(direction)) != 0;
+    }
+
+    /**
+     * The function tells if water can go from this pipe to the pipe of a neighbor cell.
+     *
+     * @param next The type of the pipe of the neighbor, or null if the neighbor is empty.
+     * @param direction The side of this cell where the neighbor is.
+     * @return true if both pipes have an opening facing the other one.
+     */
+    public boolean connectsTo(PipeType next, Direction direction) {
+        return next != null && connects(openings, next.openings, direction);
+    }
+
+    /**
+     * The function tells if two neighbor cells connect, given the masks of their openings.
+     *
+     * @param mask The openings of the first cell, 0 for an empty cell.
+     * @param neighborMask The openings of the second cell, 0 for an empty cell.
+     * @param direction The side of the first cell where the second one is.
+     * @return true if both cells have an opening facing the other one.
+     */
+    public static boolean connects(int mask, int neighborMask, Direction direction) {
+        return CONNECTIONS[direction.ordinal() << 8 | mask << 4 | neighborMask];
+    }
+
+    /**
+     * The function returns the bit of a side in the masks of openings.
+     *
+     * @param direction The side of the cell.
+     * @return The bit of that side.
+     */
+    public static int bit(Direction direction) {
+        return 1 << direction.ordinal();
+    }
+
+    /**
+     * The function counts the open ends of a whole board: the openings that face an empty cell, a
+     * cell without the matching opening or the border of the board. A board where every pipe is part
+     * of one closed route has no open ends except the inlet and the outlet.
+     *
+     * Every pair of neighbor cells is checked once in a single pass over the masks. The loops are
+     * straight shifts, xors and sums without branches, so the JIT can turn them into vector
+     * instructions.
+     *
+     * @param masks The openings of every cell, row by row, 0 for the empty and blocked cells.
+     * @param rows The number of rows of the board.
+     * @param cols The number of columns of the board.
+     * @return The number of open ends.
+     */
+    public static int openEnds(byte[] masks, int rows, int cols) {
+        int open = 0;
+        for (int row = 0; row < rows; row++) {
+            int start = row * cols;
+            int end = start + cols - 1;
+            // the RIGHT bit of a cell against the LEFT bit of the cell after it
+            for (int i = start; i < end; i++) {
+                open += ((masks[i] >> 2) ^ (masks[i + 1] >> 3)) & 1;
+            }
+            open += (masks[start] >> 3) & 1;
+            open += (masks[end] >> 2) & 1;
+        }
+        // the DOWN bit of a cell against the UP bit of the cell below it
+        int lastRow = (rows - 1) * cols;
+        for (int i = 0; i < lastRow; i++) {
+            open += ((masks[i] >> 1) ^ masks[i + cols]) & 1;
+        }
+        for (int col = 0; col < cols; col++) {
+            open += masks[col] & 1;
+            open += (masks[lastRow + col] >> 1) & 1;
+        }
+        return open;
+    }
 }
@@ -0,0 +1,100 @@
+package com.example.pipegame.model;
+
+/**
+ * The Reachability class answers if one vertex can be reached from another with a breadth-first
+ * search that only keeps what the answer needs: a bitset with the visited ids and a ring buffer with
+ * the ids waiting to be expanded. It does not touch the vertices, does not build an order list and
+ * stops as soon as the target is seen, so a target close to the source costs a few steps no matter
+ * how big the graph is.
+ *
+ * The ring buffer starts small and doubles when it is full, so the memory follows the frontier of
+ * the search instead of the number of vertices.
+ */
+final class Reachability implements IntAdjacency.EdgeVisitor {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final long[] visited;
+    private final int target;
+    private int[] queue;
+    private int head;
+    private int size;
+    private boolean found;
+
+    private Reachability(int vertexCount, int target) {
+        this.target = target;
+        visited = new long[(vertexCount + 63) >>> 6];
+        queue = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * The function tells if there is a path between two vertices.
+     *
+     * @param vertexCount The number of ids of the graph.
+     * @param adjacency The edges of the graph.
+     * @param source The id of the vertex where the search begins.
+     * @param target The id of the vertex searched.
+     * @return true if the target can be reached from the source.
+     */
+    static boolean test(int vertexCount, IntAdjacency adjacency, int source, int target) {
+        if (source == target) {
+            return true;
+        }
+        Reachability search = new Reachability(vertexCount, target);
+        search.mark(source);
+        search.offer(source);
+        while (search.size > 0) {
+            adjacency.forEachEdge(search.poll(), search);
+            if (search.found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void visit(int neighbor, int weight) {
+        if (found || isMarked(neighbor)) {
+            return;
+        }
+        if (neighbor == target) {
+            found = true;
+            return;
+        }
+        mark(neighbor);
+        offer(neighbor);
+    }
+
+    private void offer(int vertex) {
+        if (size == queue.length) {
+            grow();
+        }
+        queue[(head + size) & (queue.length - 1)] = vertex;
+        size++;
+    }
+
+    private int poll() {
+        int vertex = queue[head];
+        head = (head + 1) & (queue.length - 1);
+        size--;
+        return vertex;
+    }
+
+    // The capacity is always a power of two, so the positions wrap around with a mask.
+    private void grow() {
+        int[] bigger = new int[queue.length * 2];
+        for (int i = 0; i < size; i++) {
+            bigger[i] = queue[(head + i) & (queue.length - 1)];
+        }
+        queue = bigger;
+        head = 0;
+    }
+
+    private void mark(int vertex) {
+        visited[vertex >>> 6] |= 1L << vertex;
+    }
+
+    private boolean isMarked(int vertex) {
+        return (visited[vertex >>> 6] & (1L << vertex)) != 0;
+    }
+}
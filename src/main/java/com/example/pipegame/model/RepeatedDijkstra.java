@@ -0,0 +1,166 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The RepeatedDijkstra class computes the shortest distance between all pairs of vertices of a CSR
+ * graph by running Dijkstra's algorithm once from every vertex. Each run costs O(E log V), so for a
+ * sparse graph, like the grid of the game where every vertex has at most 4 neighbors, the V runs are
+ * much cheaper than the O(V^3) of Floyd-Warshall.
+ *
+ * The runs are independent, so the rows are split over the threads of a ForkJoinPool. Every thread
+ * keeps its own Workspace between runs, with the heap and the settled marks, and only allocates the
+ * row it fills. The weights must not be negative.
+ */
+final class RepeatedDijkstra {
+
+    // rows below this number are computed by a single task
+    private static final int GRAIN = 16;
+
+    private static final ThreadLocal<Workspace> WORKSPACES = ThreadLocal.withInitial(Workspace::new);
+
+    private RepeatedDijkstra() {
+    }
+
+    /**
+     * The function tells if running Dijkstra from every vertex is expected to be cheaper than
+     * Floyd-Warshall: V runs of E log V against V^3 steps.
+     *
+     * @param vertexCount The number of vertices.
+     * @param edgeCount The number of entries of the CSR rows, twice the number of edges.
+     * @return true if the graph is sparse enough.
+     */
+    static boolean isSparse(int vertexCount, int edgeCount) {
+        int log = 32 - Integer.numberOfLeadingZeros(Math.max(1, vertexCount));
+        return (long) edgeCount * log < (long) vertexCount * vertexCount;
+    }
+
+    /**
+     * The function computes the shortest distance between all pairs of vertices.
+     *
+     * @param offsets The start of the row of every vertex in targets and weights, plus the end.
+     * @param targets The neighbors of every vertex.
+     * @param weights The weight of the edge to every neighbor, never negative.
+     * @param parallelism The number of threads to use, 1 to run in the calling thread.
+     * @return A square matrix with the shortest distances, where Integer.MAX_VALUE means unreachable,
+     * the same contract as floydWarshall.
+     */
+    static int[][] solve(int[] offsets, int[] targets, int[] weights, int parallelism) {
+        int size = offsets.length - 1;
+        int[][] dist = new int[size][];
+        Rows all = new Rows(offsets, targets, weights, dist, 0, size);
+        if (parallelism <= 1 || size <= GRAIN) {
+            all.compute();
+            return dist;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(all);
+        } finally {
+            pool.shutdown();
+        }
+        return dist;
+    }
+
+    /**
+     * The function runs Dijkstra's algorithm from one vertex with the workspace of the current
+     * thread.
+     *
+     * @param offsets The CSR offsets.
+     * @param targets The CSR targets.
+     * @param weights The CSR weights.
+     * @param source The index of the vertex where the paths start.
+     * @return The row of the source in the distance matrix.
+     */
+    private static int[] row(int[] offsets, int[] targets, int[] weights, int source) {
+        int size = offsets.length - 1;
+        Workspace workspace = WORKSPACES.get().prepare(size);
+        IndexedMinHeap heap = workspace.heap;
+        int[] settled = workspace.settled;
+        int epoch = workspace.epoch;
+        int[] row = new int[size];
+        Arrays.fill(row, Integer.MAX_VALUE);
+        row[source] = 0;
+        heap.push(source, 0);
+        while (!heap.isEmpty()) {
+            int u = heap.poll();
+            settled[u] = epoch;
+            int distanceU = row[u];
+            for (int position = offsets[u]; position < offsets[u + 1]; position++) {
+                int v = targets[position];
+                int newDistance = distanceU + weights[position];
+                if (settled[v] != epoch && newDistance < row[v]) {
+                    row[v] = newDistance;
+                    heap.push(v, newDistance);
+                }
+            }
+        }
+        return row;
+    }
+
+    /**
+     * The Rows class is the task that computes the rows from..to - 1, splitting itself in halves
+     * while there are more than GRAIN rows.
+     */
+    private static final class Rows extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int[] offsets;
+        private final int[] targets;
+        private final int[] weights;
+        private final int[][] dist;
+        private final int from;
+        private final int to;
+
+        Rows(int[] offsets, int[] targets, int[] weights, int[][] dist, int from, int to) {
+            this.offsets = offsets;
+            this.targets = targets;
+            this.weights = weights;
+            this.dist = dist;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN || getPool() == null) {
+                for (int source = from; source < to; source++) {
+                    dist[source] = row(offsets, targets, weights, source);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Rows(offsets, targets, weights, dist, from, middle),
+                    new Rows(offsets, targets, weights, dist, middle, to));
+        }
+    }
+
+    /**
+     * The Workspace class holds what a thread reuses from one run to the next. A vertex is settled in
+     * the current run when its mark is the current epoch, so the marks never need to be cleared, and
+     * the heap is always empty when a run ends.
+     */
+    private static final class Workspace {
+
+        private IndexedMinHeap heap;
+        private int[] settled;
+        private int epoch;
+
+        Workspace prepare(int size) {
+            if (settled == null || settled.length < size) {
+                heap = new IndexedMinHeap(size);
+                settled = new int[size];
+                epoch = 0;
+            }
+            epoch++;
+            if (epoch == Integer.MAX_VALUE) {
+                Arrays.fill(settled, 0);
+                epoch = 1;
+            }
+            return this;
+        }
+    }
+}
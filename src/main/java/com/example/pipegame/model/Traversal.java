@@ -0,0 +1,203 @@
+package com.example.pipegame.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * The Traversal class holds the result of one query over a graph (a breadth-first search, a
+ * depth-first search, a shortest path tree or a minimum spanning forest) in primitive arrays indexed
+ * by the vertex id the graph uses internally. The graph is only read while the query runs, so
+ * several queries can run at the same time, from different threads, over the same graph, as long as
+ * nobody modifies it meanwhile.
+ *
+ * The result keeps a reference to the vertices of the graph to translate ids back to vertices, so it
+ * is only meaningful until the vertices of the graph change. The bfs and dfs methods of the graphs
+ * copy the result onto the Vertex objects with publish(), which is the behavior they always had.
+ */
+public class Traversal<T> {
+
+    public static final int NO_VERTEX = -1;
+
+    private final List<Vertex<T>> vertexById;
+    private final ToIntFunction<Vertex<T>> idOf;
+    final int[] order;
+    final int[] distance;
+    final int[] predecessor;
+    final int[] discoveryTime;
+    final int[] finishTime;
+    int count;
+    int clock;
+
+    // The constructor creates an empty result for a graph whose ids go from 0 to vertexById.size() - 1.
+    // vertexById may hold null for ids that are not in use. The times are only allocated for a
+    // depth-first search.
+    Traversal(List<Vertex<T>> vertexById, ToIntFunction<Vertex<T>> idOf, boolean withTimes) {
+        int size = vertexById.size();
+        this.vertexById = vertexById;
+        this.idOf = idOf;
+        order = new int[size];
+        distance = new int[size];
+        predecessor = new int[size];
+        Arrays.fill(distance, Integer.MAX_VALUE);
+        Arrays.fill(predecessor, NO_VERTEX);
+        discoveryTime = withTimes ? new int[size] : null;
+        finishTime = withTimes ? new int[size] : null;
+        count = 0;
+        clock = 0;
+    }
+
+    /**
+     * The function records that a vertex has been reached.
+     *
+     * @param id The id of the vertex.
+     * @param from The id of its predecessor, or NO_VERTEX for a root.
+     * @param value The distance of the vertex.
+     */
+    void reach(int id, int from, int value) {
+        order[count++] = id;
+        predecessor[id] = from;
+        distance[id] = value;
+    }
+
+    /**
+     * The function records that the final distance of a vertex is known. Dijkstra and Prim write the
+     * tentative distance and predecessor of a vertex directly in the arrays, and settle it when it
+     * leaves the priority queue.
+     *
+     * @param id The id of the vertex.
+     */
+    void settle(int id) {
+        order[count++] = id;
+    }
+
+    boolean isReached(int id) {
+        return distance[id] != Integer.MAX_VALUE;
+    }
+
+    /**
+     * The function returns the vertices in the order they were reached.
+     *
+     * @return A new ArrayList with the reached vertices.
+     */
+    public ArrayList<Vertex<T>> getOrder() {
+        ArrayList<Vertex<T>> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(vertexById.get(order[i]));
+        }
+        return result;
+    }
+
+    public int getReachedCount() {
+        return count;
+    }
+
+    public boolean isReached(Vertex<T> vertex) {
+        int id = idOf.applyAsInt(vertex);
+        return id != NO_VERTEX && isReached(id);
+    }
+
+    /**
+     * The function returns the distance of a vertex: the number of edges for a breadth-first search,
+     * the depth in the tree for a depth-first search, the length of the shortest path for Dijkstra and
+     * the weight of the edge to the parent for a spanning forest.
+     *
+     * @param vertex The vertex wanted.
+     * @return The distance, or Integer.MAX_VALUE if the vertex was not reached.
+     */
+    public int getDistance(Vertex<T> vertex) {
+        int id = idOf.applyAsInt(vertex);
+        return id == NO_VERTEX ? Integer.MAX_VALUE : distance[id];
+    }
+
+    /**
+     * The function returns the vertex from which a vertex was reached.
+     *
+     * @param vertex The vertex wanted.
+     * @return Its predecessor, or null for the start vertex and the vertices not reached.
+     */
+    public Vertex<T> getPredecessor(Vertex<T> vertex) {
+        int id = idOf.applyAsInt(vertex);
+        return id == NO_VERTEX || predecessor[id] == NO_VERTEX ? null : vertexById.get(predecessor[id]);
+    }
+
+    public int getDiscoveryTime(Vertex<T> vertex) {
+        int id = idOf.applyAsInt(vertex);
+        return discoveryTime == null || id == NO_VERTEX ? 0 : discoveryTime[id];
+    }
+
+    public int getFinishTime(Vertex<T> vertex) {
+        int id = idOf.applyAsInt(vertex);
+        return finishTime == null || id == NO_VERTEX ? 0 : finishTime[id];
+    }
+
+    /**
+     * The function follows the predecessors from a vertex back to the start of the query.
+     *
+     * @param target The vertex where the path ends.
+     * @return An ArrayList with the path from the target back to the start, in the same shape as the
+     * dijkstra method of IGraph. If the target was not reached, only the target.
+     */
+    public ArrayList<Vertex<T>> pathTo(Vertex<T> target) {
+        ArrayList<Vertex<T>> path = new ArrayList<>();
+        path.add(target);
+        int id = idOf.applyAsInt(target);
+        if (id == NO_VERTEX) {
+            return path;
+        }
+        for (int current = predecessor[id]; current != NO_VERTEX; current = predecessor[current]) {
+            path.add(vertexById.get(current));
+        }
+        return path;
+    }
+
+    /**
+     * The function copies the vertices into an empty graph, in id order, and adds an edge from the
+     * predecessor of every vertex to it with the distance as weight. For a spanning forest returned by
+     * primTraversal() the result is the minimum spanning forest.
+     *
+     * @param tree The empty graph that will hold the result.
+     * @return The same graph received, filled.
+     */
+    <G extends IGraph<T>> G buildForest(G tree) {
+        ArrayList<Vertex<T>> copies = new ArrayList<>(vertexById.size());
+        for (Vertex<T> vertex : vertexById) {
+            Vertex<T> copy = vertex == null ? null : new Vertex<>(vertex.getData());
+            copies.add(copy);
+            if (copy != null) {
+                tree.addVertex(copy);
+            }
+        }
+        for (int id = 0; id < copies.size(); id++) {
+            if (copies.get(id) != null && predecessor[id] != NO_VERTEX) {
+                tree.addEdge(copies.get(predecessor[id]), copies.get(id), distance[id]);
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * The function copies the result onto the Vertex objects: the color, and the distance and
+     * predecessor, or the discovery and finish times for a depth-first search. The vertices that were
+     * not reached are left WHITE.
+     */
+    void publish() {
+        for (int id = 0; id < vertexById.size(); id++) {
+            Vertex<T> vertex = vertexById.get(id);
+            if (vertex == null) {
+                continue;
+            }
+            vertex.setColor(isReached(id) ? Color.BLACK : Color.WHITE);
+            if (discoveryTime != null) {
+                if (isReached(id)) {
+                    vertex.setDiscoveryTime(discoveryTime[id]);
+                    vertex.setFinishTime(finishTime[id]);
+                }
+            } else {
+                vertex.setDistance(distance[id]);
+                vertex.setPredecessor(predecessor[id] == NO_VERTEX ? null : vertexById.get(predecessor[id]));
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.pipegame.model;
+
+import java.util.Arrays;
+
+/**
+ * The UnionFind class is a disjoint-set forest over the ids 0 .. count - 1, stored in two int arrays
+ * that grow when ids are added. The smaller tree is always hung below the root of the bigger one
+ * (union by size), and find halves the path it walks by pointing every other element to its
+ * grandparent, so both operations are almost constant in practice. find is iterative, so long chains
+ * can not overflow the stack.
+ */
+final class UnionFind {
+
+    private int[] parent;
+    private int[] size;
+    private int count;
+    private int components;
+
+    /**
+     * The constructor creates a set for every id.
+     *
+     * @param count The number of ids.
+     */
+    UnionFind(int count) {
+        parent = new int[count];
+        size = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+        this.count = count;
+        components = count;
+    }
+
+    /**
+     * The function adds a new id, in a set of its own.
+     *
+     * @return The new id, which is the number of ids there were before.
+     */
+    int add() {
+        if (count == parent.length) {
+            int capacity = Math.max(16, count * 2);
+            parent = Arrays.copyOf(parent, capacity);
+            size = Arrays.copyOf(size, capacity);
+        }
+        parent[count] = count;
+        size[count] = 1;
+        components++;
+        return count++;
+    }
+
+    /**
+     * The function returns the representative of the set of an id.
+     *
+     * @param element The id.
+     * @return The id of the root of its tree.
+     */
+    int find(int element) {
+        while (parent[element] != element) {
+            parent[element] = parent[parent[element]];
+            element = parent[element];
+        }
+        return element;
+    }
+
+    /**
+     * The function joins the sets of two ids.
+     *
+     * @param a The first id.
+     * @param b The second id.
+     * @return true if they were in different sets, false if nothing changed.
+     */
+    boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (size[rootA] < size[rootB]) {
+            int swap = rootA;
+            rootA = rootB;
+            rootB = swap;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        components--;
+        return true;
+    }
+
+    /**
+     * The function tells if two ids are in the same set.
+     *
+     * @param a The first id.
+     * @param b The second id.
+     * @return true if they have the same representative.
+     */
+    boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * The function returns the number of ids.
+     *
+     * @return The number of ids.
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * The function returns the number of disjoint sets.
+     *
+     * @return The number of sets.
+     */
+    int components() {
+        return components;
+    }
+}
@@ -2,6 +2,9 @@ package com.example.pipegame.model;
 
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 
 public class Vertex<T> {
 
@@ -12,6 +15,7 @@ public class Vertex<T> {
     private int discoveryTime;
     private int finishTime;
     private ArrayList<Vertex<T>> neighbors;
+    private LinkedHashMap<Vertex<T>, Edge<T>> incidentEdges;
 
     // The `public Vertex(T data)` constructor is initializing a new instance of the `Vertex` class. It
     // takes a parameter `data` of type `T` and assigns it to the `data` field of the `Vertex` object.
@@ -24,7 +28,10 @@ public class Vertex<T> {
     }
 
     /**
-     * The function sets the value of the data variable.
+     * The function sets the value of the data variable. The graphs index a vertex by the data it has
+     * when it is added, so the data of a vertex should be set before adding it to a graph: after a
+     * change, findVertex and getVertex do not find the vertex by the old data nor by the new one
+     * until it is removed and added again.
      * 
      * @param data The parameter "data" is of type T, which means it can be any type specified when the
      * class or method is used. It is used to set the value of the data variable in the class.
@@ -102,6 +109,63 @@ public class Vertex<T> {
         neighbors.remove(neighbor);
     }
 
+    /**
+     * The function returns the edges that touch this vertex, in the order they were added. The map
+     * behind it is only created when the first edge is attached, so vertices of graphs that do not
+     * store Edge objects (like the adjacency matrix) do not pay for it.
+     *
+     * @return A read-only view of the incident edges of the vertex.
+     */
+    public Collection<Edge<T>> getIncidentEdges() {
+        if (incidentEdges == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableCollection(incidentEdges.values());
+    }
+
+    /**
+     * The function returns the edge that joins this vertex with the given neighbor.
+     *
+     * @param neighbor The vertex at the other end of the edge.
+     * @return The edge between both vertices, or null if they are not connected.
+     */
+    public Edge<T> getIncidentEdge(Vertex<T> neighbor) {
+        return incidentEdges == null ? null : incidentEdges.get(neighbor);
+    }
+
+    /**
+     * The function attaches an edge to this vertex, indexed by the vertex at its other end.
+     *
+     * @param neighbor The vertex at the other end of the edge.
+     * @param edge The edge that joins both vertices.
+     */
+    void attachEdge(Vertex<T> neighbor, Edge<T> edge) {
+        if (incidentEdges == null) {
+            incidentEdges = new LinkedHashMap<>();
+        }
+        incidentEdges.put(neighbor, edge);
+    }
+
+    /**
+     * The function detaches the edge that joins this vertex with the given neighbor.
+     *
+     * @param neighbor The vertex at the other end of the edge.
+     * @return The detached edge, or null if there was none.
+     */
+    Edge<T> detachEdge(Vertex<T> neighbor) {
+        return incidentEdges == null ? null : incidentEdges.remove(neighbor);
+    }
+
+    /**
+     * The function detaches every edge and neighbor from this vertex.
+     */
+    void clearIncidentEdges() {
+        if (incidentEdges != null) {
+            incidentEdges.clear();
+        }
+        neighbors.clear();
+    }
+
     /**
      * The function returns the value of the data variable.
      * 
@@ -0,0 +1,173 @@
+package com.example.pipegame.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The VertexIndex class keeps two hash maps next to the vertex list of a graph: one from the data of
+ * a vertex to the vertex itself and one from the vertex to its position (index) in the graph. Both
+ * graph implementations use it so that lookup, membership and index resolution take O(1) instead of
+ * walking the whole list of vertices.
+ *
+ * A vertex is indexed by the data it has when it is added. The vertex does not know the indexes
+ * that hold it, so a vertex whose data changed afterwards is not found by find under either value
+ * until it is removed and added again.
+ */
+class VertexIndex<T> {
+
+    private final Map<T, Vertex<T>> vertexByData;
+    // the vertices of every data held by more than one vertex, in no particular order
+    private final Map<T, ArrayList<Vertex<T>>> sharedData;
+    // the position of every vertex and the data it was indexed under
+    private final Map<Vertex<T>, Entry<T>> indexByVertex;
+
+    // The constructor initializes the maps empty.
+    VertexIndex() {
+        vertexByData = new HashMap<>();
+        sharedData = new HashMap<>();
+        indexByVertex = new HashMap<>();
+    }
+
+    /**
+     * The function registers a vertex at the given index. If another vertex already holds the same
+     * data, find keeps returning the one with the smallest index, as the linear search used to do.
+     *
+     * @param vertex The vertex to register.
+     * @param index The position of the vertex inside the graph.
+     */
+    void add(Vertex<T> vertex, int index) {
+        T data = vertex.getData();
+        Entry<T> old = indexByVertex.put(vertex, new Entry<>(index, data));
+        if (old != null) {
+            unlink(vertex, old.data);
+        }
+        link(vertex, data);
+    }
+
+    /**
+     * The function forgets a vertex, under the data it had when it was added. The caller is
+     * responsible for calling reindex afterwards if the positions of the remaining vertices changed.
+     *
+     * @param vertex The vertex to unregister.
+     */
+    void remove(Vertex<T> vertex) {
+        Entry<T> entry = indexByVertex.remove(vertex);
+        if (entry != null) {
+            unlink(vertex, entry.data);
+        }
+    }
+
+    /**
+     * The function checks if the vertex belongs to the graph.
+     *
+     * @param vertex The vertex to look for.
+     * @return true if the vertex is registered in the index.
+     */
+    boolean contains(Vertex<T> vertex) {
+        return indexByVertex.containsKey(vertex);
+    }
+
+    /**
+     * The function returns the position of a vertex inside the graph.
+     *
+     * @param vertex The vertex to look for.
+     * @return The index of the vertex, or -1 if it is not in the graph.
+     */
+    int indexOf(Vertex<T> vertex) {
+        Entry<T> entry = indexByVertex.get(vertex);
+        return entry != null ? entry.index : -1;
+    }
+
+    /**
+     * The function updates the index of every vertex from a given position to the end of the list.
+     * It is used after a removal shifts the vertices that were after the removed one.
+     *
+     * @param vertices The list of vertices of the graph.
+     * @param from The first position that changed.
+     */
+    void reindex(List<Vertex<T>> vertices, int from) {
+        for (int i = from; i < vertices.size(); i++) {
+            indexByVertex.get(vertices.get(i)).index = i;
+        }
+    }
+
+    /**
+     * The function finds the vertex that holds the given data with a map lookup. A miss means that
+     * no vertex of the graph holds the data.
+     *
+     * @param data The data of the vertex to find.
+     * @return The vertex that holds the data, or null if there is none.
+     */
+    Vertex<T> find(T data) {
+        ArrayList<Vertex<T>> shared = sharedData.get(data);
+        if (shared == null) {
+            Vertex<T> vertex = vertexByData.get(data);
+            return vertex != null && holds(vertex, data) ? vertex : null;
+        }
+        Vertex<T> first = null;
+        int firstIndex = Integer.MAX_VALUE;
+        for (Vertex<T> vertex : shared) {
+            int index = indexByVertex.get(vertex).index;
+            if (index < firstIndex && holds(vertex, data)) {
+                first = vertex;
+                firstIndex = index;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * The function removes every vertex from the index.
+     */
+    void clear() {
+        vertexByData.clear();
+        sharedData.clear();
+        indexByVertex.clear();
+    }
+
+    private void link(Vertex<T> vertex, T data) {
+        ArrayList<Vertex<T>> shared = sharedData.get(data);
+        if (shared != null) {
+            shared.add(vertex);
+            return;
+        }
+        Vertex<T> holder = vertexByData.putIfAbsent(data, vertex);
+        if (holder != null && holder != vertex) {
+            shared = new ArrayList<>(2);
+            shared.add(holder);
+            shared.add(vertex);
+            sharedData.put(data, shared);
+        }
+    }
+
+    private void unlink(Vertex<T> vertex, T data) {
+        ArrayList<Vertex<T>> shared = sharedData.get(data);
+        if (shared == null) {
+            vertexByData.remove(data, vertex);
+            return;
+        }
+        shared.remove(vertex);
+        if (shared.size() == 1) {
+            sharedData.remove(data);
+            vertexByData.put(data, shared.get(0));
+        }
+    }
+
+    // The vertices whose data changed after they were added are kept under their old data.
+    private boolean holds(Vertex<T> vertex, T data) {
+        T current = vertex.getData();
+        return current == null ? data == null : current.equals(data);
+    }
+
+    private static final class Entry<T> {
+        private int index;
+        private final T data;
+
+        private Entry(int index, T data) {
+            this.index = index;
+            this.data = data;
+        }
+    }
+}
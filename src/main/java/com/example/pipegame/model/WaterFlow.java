@@ -0,0 +1,214 @@
+package com.example.pipegame.model;
+
+import com.example.exception.GraphException;
+
+import java.util.Arrays;
+
+/**
+ * The WaterFlow class follows, while the pipes of a board are placed, replaced and removed, which
+ * cells are wet: the cells joined to the source cell by a chain of pipes whose openings face each
+ * other. Every cell is the int id row * cols + col, and its pipe is kept as the mask of its openings.
+ *
+ * The wet cells form a tree rooted at the source, where every wet cell remembers the neighbor the
+ * water came from. When a pipe changes, only the cells that got their water through it are dried,
+ * and the water is poured again from them and from the changed cell, so a click costs work in
+ * proportion to the cells whose state can change instead of the size of the board.
+ */
+public final class WaterFlow {
+
+    private static final int DRY = -1;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int rows;
+    private final int cols;
+    private final int source;
+    // the openings of the pipe of every cell, 0 for the empty ones
+    private final byte[] masks;
+    // the cell the water came from for every wet cell, the source for itself, DRY for the rest
+    private final int[] from;
+    private int[] work = new int[16];
+    private int wetCount;
+
+    /**
+     * The constructor creates a board without pipes.
+     *
+     * @param rows The number of rows of the board.
+     * @param cols The number of columns of the board.
+     * @param sourceRow The row of the cell the water comes into.
+     * @param sourceCol The column of the cell the water comes into.
+     */
+    public WaterFlow(int rows, int cols, int sourceRow, int sourceCol) {
+        if (rows <= 0 || cols <= 0) {
+            throw new GraphException("The grid must have at least one row and one column.");
+        }
+        this.rows = rows;
+        this.cols = cols;
+        source = id(sourceRow, sourceCol);
+        masks = new byte[rows * cols];
+        from = new int[rows * cols];
+        Arrays.fill(from, DRY);
+    }
+
+    /**
+     * The function places a pipe on a cell, replacing the one it had, and updates the wet cells.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @param type The type of the new pipe, or null to leave the cell empty.
+     */
+    public void setPipe(int row, int col, PipeType type) {
+        int cell = id(row, col);
+        byte mask = (byte) (type == null ? 0 : type.openings());
+        if (masks[cell] == mask) {
+            return;
+        }
+        // the cells that got their water through this one, the cell itself first
+        int pending = from[cell] != DRY ? drySubtree(cell) : 0;
+        if (pending == 0) {
+            push(0, cell);
+            pending = 1;
+        }
+        masks[cell] = mask;
+        for (int i = 0; i < pending; i++) {
+            int dried = work[i];
+            if (from[dried] != DRY || masks[dried] == 0) {
+                continue;
+            }
+            int wetNeighbor = dried == source ? source : wetNeighbor(dried);
+            if (wetNeighbor != DRY) {
+                from[dried] = wetNeighbor;
+                wetCount++;
+                pending = pour(dried, pending);
+            }
+        }
+    }
+
+    /**
+     * The function removes every pipe of the board.
+     */
+    public void clear() {
+        Arrays.fill(masks, (byte) 0);
+        Arrays.fill(from, DRY);
+        wetCount = 0;
+    }
+
+    /**
+     * The function tells if the water coming from the source reaches a cell.
+     *
+     * @param row The row of the cell.
+     * @param col The column of the cell.
+     * @return true if the cell is wet.
+     */
+    public boolean isWet(int row, int col) {
+        return from[id(row, col)] != DRY;
+    }
+
+    /**
+     * The function returns the number of wet cells.
+     *
+     * @return The number of cells the water reaches.
+     */
+    public int wetCount() {
+        return wetCount;
+    }
+
+    /**
+     * The function counts the openings of the board that do not face a matching opening, in one
+     * pass over the masks of the cells.
+     *
+     * @return The number of open ends.
+     */
+    public int openEnds() {
+        return PipeType.openEnds(masks, rows, cols);
+    }
+
+    /**
+     * The function tells if the pipes of two neighbor cells are connected, which happens when each
+     * one has an opening facing the other.
+     *
+     * @param cell The id of the first cell.
+     * @param direction The side of the first cell where the second one is.
+     * @return true if water can go from one cell to the other.
+     */
+    private boolean connected(int cell, Direction direction) {
+        int neighbor = cellTowards(cell, direction);
+        return neighbor != DRY && PipeType.connects(masks[cell], masks[neighbor], direction);
+    }
+
+    // Dries a wet cell and every cell whose water came through it, leaving them in work[0 .. count).
+    private int drySubtree(int cell) {
+        int count = push(0, cell);
+        from[cell] = DRY;
+        wetCount--;
+        for (int i = 0; i < count; i++) {
+            int current = work[i];
+            for (Direction direction : DIRECTIONS) {
+                int neighbor = cellTowards(current, direction);
+                if (neighbor != DRY && from[neighbor] == current) {
+                    from[neighbor] = DRY;
+                    wetCount--;
+                    count = push(count, neighbor);
+                }
+            }
+        }
+        return count;
+    }
+
+    // Spreads the water from a wet cell to every dry cell connected to it. The cells reached are
+    // appended to the work list after the pending ones, which are already processed by the caller
+    // up to its current position, so appending keeps the caller's loop correct.
+    private int pour(int cell, int pending) {
+        int start = pending;
+        int count = push(pending, cell);
+        for (int i = start; i < count; i++) {
+            int current = work[i];
+            for (Direction direction : DIRECTIONS) {
+                if (connected(current, direction)) {
+                    int neighbor = cellTowards(current, direction);
+                    if (from[neighbor] == DRY) {
+                        from[neighbor] = current;
+                        wetCount++;
+                        count = push(count, neighbor);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private int wetNeighbor(int cell) {
+        for (Direction direction : DIRECTIONS) {
+            if (connected(cell, direction)) {
+                int neighbor = cellTowards(cell, direction);
+                if (from[neighbor] != DRY) {
+                    return neighbor;
+                }
+            }
+        }
+        return DRY;
+    }
+
+    private int push(int count, int cell) {
+        if (count == work.length) {
+            work = Arrays.copyOf(work, count * 2);
+        }
+        work[count] = cell;
+        return count + 1;
+    }
+
+    private int cellTowards(int cell, Direction direction) {
+        switch (direction) {
+            case UP -> {return cell >= cols ? cell - cols : DRY;}
+            case DOWN -> {return cell + cols < rows * cols ? cell + cols : DRY;}
+            case RIGHT -> {return cell % cols != cols - 1 ? cell + 1 : DRY;}
+            default -> {return cell % cols != 0 ? cell - 1 : DRY;}
+        }
+    }
+
+    private int id(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new GraphException("The cell is outside of the grid.");
+        }
+        return row * cols + col;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.pipegame.model;
 
 import java.util.ArrayList;
+import java.util.stream.Stream;
 
 public interface IGraph<T> {
     void addVertex(Vertex<T> vertex);
@@ -19,8 +20,38 @@ public interface IGraph<T> {
 
     ArrayList<Vertex<T>> dijkstra(Vertex<T> startVertex, Vertex<T> endVertex);
 
+    boolean isReachable(Vertex<T> source, Vertex<T> target);
+
+    void enableConnectivityIndex();
+
+    boolean connected(Vertex<T> a, Vertex<T> b);
+
+    ArrayList<Vertex<T>> bidirectionalBfs(Vertex<T> source, Vertex<T> target);
+
+    ArrayList<Vertex<T>> bidirectionalDijkstra(Vertex<T> source, Vertex<T> target);
+
+    ArrayList<Vertex<T>> aStar(Vertex<T> startVertex, Vertex<T> goalVertex, Heuristic<T> heuristic);
+
+    Traversal<T> bfsTraversal(Vertex<T> startVertex);
+
+    Stream<Vertex<T>> bfsStream(Vertex<T> startVertex);
+
+    Stream<Vertex<T>> dfsStream(Vertex<T> startVertex);
+
+    Traversal<T> dfsTraversal(Vertex<T> startVertex);
+
+    Traversal<T> dijkstraTraversal(Vertex<T> startVertex);
+
+    Traversal<T> aStarTraversal(Vertex<T> startVertex, Vertex<T> goalVertex, Heuristic<T> heuristic);
+
+    Traversal<T> primTraversal();
+
     int[][] floydWarshall();
 
+    int[][] floydWarshall(int parallelism);
+
+    int[][] allPairsShortestPaths(int parallelism);
+
     GraphAdjacentyList<T> primAL();
 
     GraphAdjacentyList<T> kruskalAL();
@@ -29,10 +60,18 @@ public interface IGraph<T> {
 
     GraphAdjacentyMatriz<T> kruskalAM();
 
+    GraphAdjacentyList<T> boruvkaAL(int parallelism);
+
+    GraphAdjacentyMatriz<T> boruvkaAM(int parallelism);
+
     void removeAllEdges();
 
     ArrayList<Vertex<T>> getVertices();
 
     Vertex<T> getVertex(T keyVertex);
 
+    ArrayList<Vertex<T>> getNeighbors(Vertex<T> vertex);
+
+    GraphCSR<T> freeze();
+
 }
\ No newline at end of file
@@ -2,8 +2,11 @@ package com.example.pipegame.test;
 
 import com.example.pipegame.model.Edge;
 import com.example.pipegame.model.GraphAdjacentyList;
+import com.example.pipegame.model.GraphAdjacentyMatriz;
+import com.example.pipegame.model.GraphCSR;
+import com.example.pipegame.model.Heuristic;
+import com.example.pipegame.model.Traversal;
 import com.example.pipegame.model.Vertex;
-import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,11 +14,15 @@ import org.junit.jupiter.api.Test;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class AdjacencyListGraphTest {
 
     private GraphAdjacentyList<Integer> graph;
 
+    @BeforeEach
     public void setUp() {
         graph = new GraphAdjacentyList<>();
     }
@@ -80,6 +87,69 @@ public class AdjacencyListGraphTest {
         Assertions.assertNull(foundVertex);
     }
 
+    @Test
+    public void testFindVertexAfterSetData() {
+        // Escenario interesante
+        Vertex<Integer> vertex1 = new Vertex<>(1);
+        Vertex<Integer> vertex2 = new Vertex<>(2);
+        graph.addVertex(vertex1);
+        graph.addVertex(vertex2);
+
+        // Cambiar el dato de un vértice que ya está en el grafo: el índice no lo ve
+        vertex2.setData(20);
+
+        Assertions.assertNull(graph.findVertex(2));
+        Assertions.assertNull(graph.findVertex(20));
+        assertEquals(1, graph.indexOf(vertex2));
+
+        // Al volver a añadirlo se indexa con el dato nuevo
+        graph.removeVertex(vertex2);
+        graph.addVertex(vertex2);
+        assertEquals(vertex2, graph.findVertex(20));
+        assertEquals(vertex1, graph.findVertex(1));
+    }
+
+    @Test
+    public void testFindVertexSharedData() {
+        // Varios vértices con el mismo dato: se devuelve el de menor posición
+        Vertex<Integer> vertex1 = new Vertex<>(5);
+        Vertex<Integer> vertex2 = new Vertex<>(5);
+        Vertex<Integer> vertex3 = new Vertex<>(6);
+        graph.addVertex(vertex1);
+        graph.addVertex(vertex2);
+        graph.addVertex(vertex3);
+        assertEquals(vertex1, graph.findVertex(5));
+
+        // Un vértice cuyo dato cambió se salta
+        vertex1.setData(7);
+        assertEquals(vertex2, graph.findVertex(5));
+        assertNull(graph.findVertex(7));
+
+        graph.removeVertex(vertex1);
+        graph.removeVertex(vertex3);
+        vertex3.setData(5);
+        graph.addVertex(vertex3);
+        graph.addVertex(vertex1);
+        assertEquals(vertex2, graph.findVertex(5));
+        assertEquals(vertex1, graph.findVertex(7));
+        assertNull(graph.findVertex(6));
+
+        graph.removeVertex(vertex2);
+        assertEquals(vertex3, graph.findVertex(5));
+
+        // Un vértice eliminado ya no está en el índice del grafo
+        vertex2.setData(8);
+        assertNull(graph.findVertex(8));
+
+        // La foto congelada responde por los datos del momento en que se creó
+        GraphCSR<Integer> snapshot = graph.freeze();
+        assertEquals(vertex3, snapshot.findVertex(5));
+        assertEquals(vertex1, snapshot.findVertex(7));
+        vertex3.setData(9);
+        assertNull(snapshot.findVertex(5));
+        assertNull(snapshot.findVertex(9));
+    }
+
     @Test
     public void testRemoveVertexStandard() {
         // Escenario estándar
@@ -117,6 +187,24 @@ public class AdjacencyListGraphTest {
         assertTrue(graph.findVertex(60) != null && graph.findVertex(60).getNeighbors().isEmpty());
     }
 
+    @Test
+    public void testRemoveVertexWithSelfLoop() {
+        // Un vértice con un lazo sobre sí mismo y otra arista
+        Vertex<Integer> vertex1 = new Vertex<>(70);
+        Vertex<Integer> vertex2 = new Vertex<>(80);
+        graph.addVertex(vertex1);
+        graph.addVertex(vertex2);
+        graph.addEdge(vertex1, vertex1, 3);
+        graph.addEdge(vertex1, vertex2, 1);
+
+        graph.removeVertex(vertex1);
+
+        assertFalse(graph.getVertices().contains(vertex1));
+        assertTrue(vertex1.getIncidentEdges().isEmpty());
+        assertTrue(vertex2.getNeighbors().isEmpty());
+        assertNull(graph.findEdge(vertex2, vertex1));
+    }
+
     @Test
     public void testAddEdgeStandard() {
         // Escenario estándar
@@ -211,6 +299,66 @@ public class AdjacencyListGraphTest {
         assertNotNull(graph.findEdge(vertexB, vertexC));
     }
 
+    @Test
+    public void testIncidentEdgesInteresting() {
+        GraphAdjacentyList<String> graph = new GraphAdjacentyList<>();
+        Vertex<String> vertexA = new Vertex<>("A");
+        Vertex<String> vertexB = new Vertex<>("B");
+        Vertex<String> vertexC = new Vertex<>("C");
+
+        graph.addVertex(vertexA);
+        graph.addVertex(vertexB);
+        graph.addVertex(vertexC);
+        graph.addEdge(vertexA, vertexB, 2);
+        graph.addEdge(vertexB, vertexC, 4);
+        graph.addEdge(vertexC, vertexB, 6); // Mismo par de vértices: se actualiza el peso
+
+        // El grafo no es dirigido, el orden de los vértices no importa
+        assertEquals(graph.findEdge(vertexA, vertexB), graph.findEdge(vertexB, vertexA));
+        assertEquals(6, graph.findEdge(vertexB, vertexC).getWeight());
+        assertEquals(2, graph.getEdges(vertexB).size());
+        assertEquals(2, graph.getEdges().size());
+
+        graph.removeVertex(vertexB);
+        assertEquals(0, graph.getEdges().size());
+        assertTrue(vertexA.getNeighbors().isEmpty());
+    }
+
+    @Test
+    public void testTraversalInteresting() {
+        GraphAdjacentyList<String> graph = new GraphAdjacentyList<>();
+        Vertex<String> vertexA = new Vertex<>("A");
+        Vertex<String> vertexB = new Vertex<>("B");
+        Vertex<String> vertexC = new Vertex<>("C");
+        Vertex<String> vertexD = new Vertex<>("D");
+
+        graph.addVertex(vertexA);
+        graph.addVertex(vertexB);
+        graph.addVertex(vertexC);
+        graph.addVertex(vertexD);
+        graph.addEdge(vertexA, vertexB, 1);
+        graph.addEdge(vertexB, vertexC, 1);
+        graph.addEdge(vertexA, vertexC, 5);
+
+        // Las consultas no modifican los vértices
+        vertexC.setDistance(-1);
+        Traversal<String> bfs = graph.bfsTraversal(vertexA);
+        Traversal<String> dijkstra = graph.dijkstraTraversal(vertexA);
+        assertEquals(-1, vertexC.getDistance());
+
+        assertEquals(3, bfs.getReachedCount());
+        assertEquals(1, bfs.getDistance(vertexC));
+        assertEquals(2, dijkstra.getDistance(vertexC));
+        assertEquals(vertexB, dijkstra.getPredecessor(vertexC));
+        assertEquals(Arrays.asList(vertexC, vertexB, vertexA), dijkstra.pathTo(vertexC));
+        assertFalse(dijkstra.isReached(vertexD));
+
+        Traversal<String> forest = graph.primTraversal();
+        assertEquals(4, forest.getReachedCount());
+        assertNull(forest.getPredecessor(vertexD));
+        assertEquals(2, graph.primAL().getEdges().size());
+    }
+
     @Test
     public void testDFSStandard() {
         // Escenario estándar
@@ -266,6 +414,50 @@ public class AdjacencyListGraphTest {
         }
     }
 
+    @Test
+    public void testTraversalStreams() {
+        // Los recorridos perezosos siguen el mismo orden que bfs y dfs y se pueden cortar antes
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            vertices.add(new Vertex<>(i));
+            graph.addVertex(vertices.get(i));
+        }
+        graph.addEdge(vertices.get(0), vertices.get(1), 1);
+        graph.addEdge(vertices.get(0), vertices.get(2), 1);
+        graph.addEdge(vertices.get(1), vertices.get(3), 1);
+        graph.addEdge(vertices.get(2), vertices.get(4), 1);
+
+        List<Vertex<Integer>> bfsFirstThree = graph.bfsStream(vertices.get(0)).limit(3).collect(Collectors.toList());
+
+        assertEquals(graph.bfs(vertices.get(0)).subList(0, 3), bfsFirstThree);
+        assertEquals(graph.dfs(vertices.get(0)), graph.dfsStream(vertices.get(0)).collect(Collectors.toList()));
+        assertTrue(graph.bfsStream(vertices.get(0)).anyMatch(vertex -> vertex == vertices.get(4)));
+        Assertions.assertFalse(graph.dfsStream(vertices.get(0)).anyMatch(vertex -> vertex == vertices.get(5)));
+    }
+
+    @Test
+    public void testDFSDeepPath() {
+        // Un camino muy largo desbordaría la pila con un DFS recursivo
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            vertices.add(new Vertex<>(i));
+            graph.addVertex(vertices.get(i));
+        }
+        for (int i = 0; i + 1 < vertices.size(); i++) {
+            graph.addEdge(vertices.get(i), vertices.get(i + 1), 1);
+        }
+
+        ArrayList<Vertex<Integer>> dfsOrder = graph.dfs(vertices.get(0));
+
+        assertEquals(100000, dfsOrder.size());
+        assertEquals(1, vertices.get(0).getDiscoveryTime());
+        assertEquals(200000, vertices.get(0).getFinishTime());
+        assertEquals(100000, vertices.get(99999).getDiscoveryTime());
+        assertEquals(100001, vertices.get(99999).getFinishTime());
+    }
+
     @Test
     public void testBFSStandard() {
         // Escenario estándar
@@ -392,6 +584,67 @@ public class AdjacencyListGraphTest {
         assertEquals(vertexS, shortestPath.get(1));
     }
 
+    @Test
+    public void testDijkstraSmallWeights() {
+        // Pesos 0 y 1 (0-1 BFS), luego pesos pequeños (Dial) y un peso cambiado desde fuera del grafo
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        Vertex<Integer> vertexA = new Vertex<>(1);
+        Vertex<Integer> vertexB = new Vertex<>(2);
+        Vertex<Integer> vertexC = new Vertex<>(3);
+        Vertex<Integer> vertexD = new Vertex<>(4);
+        graph.addVertex(vertexA);
+        graph.addVertex(vertexB);
+        graph.addVertex(vertexC);
+        graph.addVertex(vertexD);
+        graph.addEdge(vertexA, vertexB, 1);
+        graph.addEdge(vertexB, vertexC, 0);
+        graph.addEdge(vertexA, vertexC, 1);
+        graph.addEdge(vertexC, vertexD, 1);
+
+        assertEquals(1, graph.dijkstraTraversal(vertexA).getDistance(vertexC));
+        assertEquals(2, graph.dijkstraTraversal(vertexA).getDistance(vertexD));
+
+        graph.addEdge(vertexA, vertexC, 40);
+        graph.addEdge(vertexB, vertexC, 30);
+        assertEquals(32, graph.dijkstraTraversal(vertexA).getDistance(vertexD));
+
+        graph.findEdge(vertexC, vertexD).setWeight(1000);
+        assertEquals(1031, graph.dijkstraTraversal(vertexA).getDistance(vertexD));
+    }
+
+    @Test
+    public void testAStarGrid() {
+        // Tablero abierto de 30x30: A* debe encontrar un camino tan corto como Dijkstra
+        // asentando muchos menos vértices
+        int size = 30;
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        List<Vertex<Integer>> cells = new ArrayList<>();
+        for (int i = 0; i < size * size; i++) {
+            cells.add(new Vertex<>(i));
+            graph.addVertex(cells.get(i));
+        }
+        for (int i = 0; i < size * size; i++) {
+            if (i % size + 1 < size) {
+                graph.addEdge(cells.get(i), cells.get(i + 1), 1);
+            }
+            if (i + size < size * size) {
+                graph.addEdge(cells.get(i), cells.get(i + size), 1);
+            }
+        }
+        Heuristic<Integer> manhattan = Heuristic.manhattan(cell -> cell / size, cell -> cell % size);
+        Vertex<Integer> start = cells.get(0);
+        Vertex<Integer> goal = cells.get(size * size - 1);
+
+        ArrayList<Vertex<Integer>> path = graph.aStar(start, goal, manhattan);
+
+        assertEquals(graph.dijkstra(start, goal).size(), path.size());
+        assertEquals(2 * (size - 1) + 1, path.size());
+        assertEquals(goal, path.get(0));
+        assertEquals(start, path.get(path.size() - 1));
+        assertTrue(graph.aStarTraversal(cells.get(size * 15), cells.get(size * 15 + size - 1), manhattan).getReachedCount()
+                < graph.dijkstraTraversal(cells.get(size * 15)).getReachedCount());
+    }
+
     @Test
     public void testFloydWarshallStandardCase() {
         // Arrange
@@ -452,6 +705,27 @@ public class AdjacencyListGraphTest {
         assertTrue(hasNegativeCycle(shortestPaths));
     }
 
+    @Test
+    public void testFloydWarshallParallel() {
+        // Camino de 200 vértices: la matriz ocupa varios bloques
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        List<Vertex<Integer>> path = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            path.add(new Vertex<>(i));
+            graph.addVertex(path.get(i));
+            if (i > 0) {
+                graph.addEdge(path.get(i - 1), path.get(i), 2);
+            }
+        }
+
+        int[][] sequential = graph.floydWarshall(1);
+        int[][] parallel = graph.floydWarshall(4);
+
+        assertEquals(398, sequential[0][199]);
+        assertEquals(398, sequential[199][0]);
+        assertTrue(Arrays.deepEquals(sequential, parallel));
+    }
+
     private boolean hasNegativeCycle(int[][] distances) {
         int V = distances.length;
         for (int i = 0; i < V; i++) {
@@ -485,6 +759,13 @@ public class AdjacencyListGraphTest {
         assertNotNull(mstGraph);
         assertEquals(3, mstGraph.getVertices().size()); // MST should have the same number of vertices
         assertEquals(2, countEdges(mstGraph));
+
+        // El mismo árbol como matriz de adyacencia
+        GraphAdjacentyMatriz<Integer> mstMatrix = graph.primAM();
+        assertEquals(3, mstMatrix.getVertices().size());
+        assertEquals(3, mstMatrix.findEdge(mstMatrix.findVertex(1), mstMatrix.findVertex(2)).getWeight());
+        assertEquals(1, mstMatrix.findEdge(mstMatrix.findVertex(2), mstMatrix.findVertex(3)).getWeight());
+        assertNull(mstMatrix.findEdge(mstMatrix.findVertex(1), mstMatrix.findVertex(3)));
     }
 
     @Test
@@ -603,4 +884,69 @@ public class AdjacencyListGraphTest {
         assertEquals(3, countEdges(mstGraph));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testKruskalLongChain() {
+        // Una cadena larga desbordaría la pila con un find recursivo
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            vertices.add(new Vertex<>(i));
+            graph.addVertex(vertices.get(i));
+        }
+        for (int i = 0; i + 1 < vertices.size(); i++) {
+            graph.addEdge(vertices.get(i), vertices.get(i + 1), 100000 - i);
+        }
+        // Un atajo caro que no debe entrar en el árbol
+        graph.addEdge(vertices.get(0), vertices.get(99999), 200000);
+        List<Integer> weightsBefore = graph.getEdges().stream().map(Edge::getWeight).collect(Collectors.toList());
+
+        GraphAdjacentyList<Integer> mstList = graph.kruskalAL();
+
+        assertEquals(100000, mstList.getVertices().size());
+        assertEquals(99999, countEdges(mstList));
+        long totalWeight = 0;
+        for (Edge<Integer> edge : mstList.getEdges()) {
+            totalWeight += edge.getWeight();
+        }
+        assertEquals(100000L * 100001 / 2 - 1, totalWeight);
+        // El grafo original no cambia de orden
+        assertEquals(weightsBefore, graph.getEdges().stream().map(Edge::getWeight).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testConnectivityIndex() {
+        GraphAdjacentyList<Integer> graph = new GraphAdjacentyList<>();
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            vertices.add(new Vertex<>(i));
+            graph.addVertex(vertices.get(i));
+        }
+        graph.enableConnectivityIndex();
+        // Ciclo 0-1-2-0 y arista suelta 3-4
+        graph.addEdge(vertices.get(0), vertices.get(1), 1);
+        graph.addEdge(vertices.get(1), vertices.get(2), 1);
+        graph.addEdge(vertices.get(2), vertices.get(0), 1);
+        graph.addEdge(vertices.get(3), vertices.get(4), 1);
+
+        assertTrue(graph.connected(vertices.get(0), vertices.get(2)));
+        Assertions.assertFalse(graph.connected(vertices.get(0), vertices.get(3)));
+
+        // Quitar una arista del ciclo no separa la componente
+        graph.removeEdge(vertices.get(0), vertices.get(1));
+        assertTrue(graph.connected(vertices.get(0), vertices.get(1)));
+        // Quitar la única arista entre 3 y 4 sí
+        graph.removeEdge(vertices.get(3), vertices.get(4));
+        Assertions.assertFalse(graph.connected(vertices.get(3), vertices.get(4)));
+
+        // Un vértice nuevo empieza en su propia componente
+        Vertex<Integer> added = new Vertex<>(5);
+        graph.addVertex(added);
+        Assertions.assertFalse(graph.connected(added, vertices.get(4)));
+        graph.addEdge(added, vertices.get(4), 1);
+        assertTrue(graph.connected(added, vertices.get(4)));
+
+        graph.removeAllEdges();
+        Assertions.assertFalse(graph.connected(vertices.get(1), vertices.get(2)));
+        assertTrue(graph.connected(vertices.get(2), vertices.get(2)));
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.pipegame.test;
 
+import com.example.exception.GraphException;
 import com.example.pipegame.model.Edge;
+import com.example.pipegame.model.GraphAdjacentyList;
 import com.example.pipegame.model.GraphAdjacentyMatriz;
+import com.example.pipegame.model.MatrixLayout;
 import com.example.pipegame.model.Vertex;
 import org.junit.Test;
 import org.junit.jupiter.api.Assertions;
@@ -100,6 +103,115 @@ public class AdjacencyMatrixGraphTest {
         assertNotEquals(vertexB, graph.findVertex('A'));
     }
 
+    @Test
+    public void testAddVerticesCapacity() {
+        GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>();
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(new Vertex<>(i));
+        }
+
+        graph.ensureCapacity(50);
+        assertTrue(graph.getCapacity() >= 50);
+
+        graph.addVertices(vertices);
+        assertEquals(100, graph.getVertices().size());
+        assertTrue(graph.getCapacity() >= 100);
+        assertEquals(100, graph.getAdjacencyMatrix().length);
+
+        // Eliminar la mitad de los vértices no debe cambiar las aristas de los demás
+        graph.addEdge(vertices.get(98), vertices.get(99), 3);
+        for (int i = 0; i < 50; i++) {
+            graph.removeVertex(vertices.get(i));
+        }
+        assertEquals(49, graph.indexOf(vertices.get(99)));
+        assertEquals(50, graph.getAdjacencyMatrix().length);
+        assertEquals(3, graph.findEdge(vertices.get(98), vertices.get(99)).getWeight());
+    }
+
+    @Test
+    public void testIndexOfAfterRemoveVertex() {
+        GraphAdjacentyMatriz<Character> graph = new GraphAdjacentyMatriz<>();
+
+        Vertex<Character> vertexA = new Vertex<>('A');
+        Vertex<Character> vertexB = new Vertex<>('B');
+        Vertex<Character> vertexC = new Vertex<>('C');
+        graph.addVertex(vertexA);
+        graph.addVertex(vertexB);
+        graph.addVertex(vertexC);
+        graph.addEdge(vertexB, vertexC, 4);
+
+        graph.removeVertex(vertexA);
+
+        assertEquals(-1, graph.indexOf(vertexA));
+        assertEquals(0, graph.indexOf(vertexB));
+        assertEquals(1, graph.indexOf(vertexC));
+        assertEquals(vertexC, graph.findVertex('C'));
+        assertNotNull(graph.findEdge(vertexB, vertexC));
+
+        // La matriz copiada sigue el orden de getVertices() aunque quede el hueco de A
+        int[][] matrix = graph.getAdjacencyMatrix();
+        assertEquals(2, matrix.length);
+        assertEquals(4, matrix[0][1]);
+
+        Vertex<Character> vertexD = new Vertex<>('D');
+        graph.addVertex(vertexD);
+        assertEquals(2, graph.indexOf(vertexD));
+        graph.removeVertex(vertexB);
+        assertEquals(0, graph.indexOf(vertexC));
+        assertEquals(1, graph.indexOf(vertexD));
+    }
+
+    @Test
+    public void testMatrixLayouts() {
+        // Todas las disposiciones de la matriz deben dar los mismos resultados
+        for (MatrixLayout layout : new MatrixLayout[]{MatrixLayout.JAGGED, MatrixLayout.FLAT, MatrixLayout.OFF_HEAP}) {
+            GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>(layout);
+            ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                vertices.add(new Vertex<>(i));
+                graph.addVertex(vertices.get(i));
+            }
+            for (int i = 0; i < 9; i++) {
+                graph.addEdge(vertices.get(i), vertices.get(i + 1), i + 1);
+            }
+            graph.removeVertex(vertices.get(0));
+
+            assertEquals(layout, graph.getLayout());
+            assertEquals(9, graph.bfs(vertices.get(1)).size());
+            assertEquals(9, graph.dfs(vertices.get(9)).size());
+            assertEquals(9, graph.dijkstra(vertices.get(1), vertices.get(9)).size());
+            assertEquals(44, graph.floydWarshall()[0][8]);
+            assertEquals(8, graph.getNeighbors(vertices.get(9)).get(0).getData());
+        }
+    }
+
+    @Test
+    public void testBitsetLayout() {
+        GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>(MatrixLayout.BITSET);
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        // Más de 64 vértices para que las filas ocupen varias palabras
+        for (int i = 0; i < 130; i++) {
+            vertices.add(new Vertex<>(i));
+            graph.addVertex(vertices.get(i));
+        }
+        for (int i = 0; i < 129; i++) {
+            graph.addEdge(vertices.get(i), vertices.get(i + 1), 1);
+        }
+        graph.addEdge(vertices.get(0), vertices.get(129), 1);
+
+        ArrayList<Vertex<Integer>> bfs = graph.bfs(vertices.get(0));
+        assertEquals(130, bfs.size());
+        assertEquals(1, bfs.get(1).getData());
+        assertEquals(129, bfs.get(2).getData());
+        assertEquals(65, vertices.get(65).getDistance());
+        assertEquals(130, graph.dfs(vertices.get(0)).size());
+        assertEquals(259, vertices.get(1).getFinishTime());
+
+        // Solo se aceptan aristas de peso 1
+        assertThrows(GraphException.class, () -> graph.addEdge(vertices.get(0), vertices.get(2), 3));
+    }
+
     @Test
     public void testRemoveVertexStandard() {
         GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>();
@@ -404,6 +516,71 @@ public class AdjacencyMatrixGraphTest {
         assertEquals(vertexA, shortestPath.get(2));
     }
 
+    @Test
+    public void testBidirectionalSearch() {
+        // El camino más corto por peso (A-C-D-E) no es el de menos aristas (A-B-E)
+        GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>();
+        Vertex<Integer> vertexA = new Vertex<>(1);
+        Vertex<Integer> vertexB = new Vertex<>(2);
+        Vertex<Integer> vertexC = new Vertex<>(3);
+        Vertex<Integer> vertexD = new Vertex<>(4);
+        Vertex<Integer> vertexE = new Vertex<>(5);
+        Vertex<Integer> isolated = new Vertex<>(6);
+        graph.addVertex(vertexA);
+        graph.addVertex(vertexB);
+        graph.addVertex(vertexC);
+        graph.addVertex(vertexD);
+        graph.addVertex(vertexE);
+        graph.addVertex(isolated);
+        graph.addEdge(vertexA, vertexB, 10);
+        graph.addEdge(vertexB, vertexE, 10);
+        graph.addEdge(vertexA, vertexC, 1);
+        graph.addEdge(vertexC, vertexD, 1);
+        graph.addEdge(vertexD, vertexE, 1);
+
+        ArrayList<Vertex<Integer>> shortestPath = graph.bidirectionalDijkstra(vertexA, vertexE);
+        ArrayList<Vertex<Integer>> fewestEdges = graph.bidirectionalBfs(vertexA, vertexE);
+        ArrayList<Vertex<Integer>> unreachable = graph.bidirectionalBfs(vertexA, isolated);
+
+        assertEquals(graph.dijkstra(vertexA, vertexE), shortestPath);
+        assertEquals(4, shortestPath.size());
+        assertEquals(3, fewestEdges.size());
+        assertEquals(vertexE, fewestEdges.get(0));
+        assertEquals(vertexB, fewestEdges.get(1));
+        assertEquals(vertexA, fewestEdges.get(2));
+        assertEquals(1, unreachable.size());
+        assertEquals(isolated, unreachable.get(0));
+    }
+
+    @Test
+    public void testIsReachable() {
+        GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>();
+        ArrayList<Vertex<Integer>> vertices = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            vertices.add(new Vertex<>(i));
+            graph.addVertex(vertices.get(i));
+        }
+        // Dos componentes: 0-1-2-3 y 4-5
+        graph.addEdge(vertices.get(0), vertices.get(1), 1);
+        graph.addEdge(vertices.get(1), vertices.get(2), 1);
+        graph.addEdge(vertices.get(2), vertices.get(3), 1);
+        graph.addEdge(vertices.get(4), vertices.get(5), 1);
+
+        assertTrue(graph.isReachable(vertices.get(0), vertices.get(3)));
+        assertTrue(graph.isReachable(vertices.get(3), vertices.get(0)));
+        assertTrue(graph.isReachable(vertices.get(4), vertices.get(4)));
+        assertFalse(graph.isReachable(vertices.get(0), vertices.get(5)));
+        assertTrue(graph.freeze().isReachable(vertices.get(5), vertices.get(4)));
+
+        // La consulta no modifica los vértices
+        assertEquals(Integer.MAX_VALUE, vertices.get(3).getDistance());
+        assertNull(vertices.get(3).getPredecessor());
+
+        // Al quitar una arista el destino deja de ser alcanzable
+        graph.removeEdge(vertices.get(1), vertices.get(2));
+        assertFalse(graph.isReachable(vertices.get(0), vertices.get(3)));
+    }
+
     @Test
     public void testDijkstraEdgeCases() {
         GraphAdjacentyMatriz<Integer> graph = new GraphAdjacentyMatriz<>();
@@ -525,6 +702,13 @@ public class AdjacencyMatrixGraphTest {
         assertNotNull(mstGraph);
         assertEquals(3, mstGraph.getVertices().size());
         assertEquals(2, countEdges(mstGraph));
+
+        // El mismo árbol como lista de adyacencia
+        GraphAdjacentyList<Integer> mstList = graph.primAL();
+        assertEquals(3, mstList.getVertices().size());
+        assertEquals(3, mstList.findEdge(mstList.findVertex(1), mstList.findVertex(2)).getWeight());
+        assertEquals(1, mstList.findEdge(mstList.findVertex(2), mstList.findVertex(3)).getWeight());
+        assertNull(mstList.findEdge(mstList.findVertex(1), mstList.findVertex(3)));
     }
 
     private <T> int countEdges(GraphAdjacentyMatriz<T> graph) {
@@ -0,0 +1,154 @@
+package com.example.pipegame.test;
+
+import com.example.exception.GraphException;
+import com.example.pipegame.model.Edge;
+import com.example.pipegame.model.GraphAdjacentyList;
+import com.example.pipegame.model.GraphAdjacentyMatriz;
+import com.example.pipegame.model.GraphCSR;
+import com.example.pipegame.model.Vertex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphCSRTest {
+
+    private GraphAdjacentyList<Character> graph;
+    private Vertex<Character> vertexA;
+    private Vertex<Character> vertexB;
+    private Vertex<Character> vertexC;
+    private Vertex<Character> vertexD;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new GraphAdjacentyList<>();
+        vertexA = new Vertex<>('A');
+        vertexB = new Vertex<>('B');
+        vertexC = new Vertex<>('C');
+        vertexD = new Vertex<>('D');
+        graph.addVertex(vertexA);
+        graph.addVertex(vertexB);
+        graph.addVertex(vertexC);
+        graph.addVertex(vertexD);
+        graph.addEdge(vertexA, vertexB, 1);
+        graph.addEdge(vertexA, vertexC, 5);
+        graph.addEdge(vertexB, vertexD, 2);
+        graph.addEdge(vertexC, vertexD, 1);
+    }
+
+    @Test
+    public void testFreezeStandard() {
+        GraphCSR<Character> frozen = graph.freeze();
+
+        assertEquals(4, frozen.vertexCount());
+        assertEquals(4, frozen.edgeCount());
+        assertEquals(vertexC, frozen.findVertex('C'));
+        assertEquals(graph.bfs(vertexA), frozen.bfs(vertexA));
+        assertEquals(graph.dfs(vertexA), frozen.dfs(vertexA));
+    }
+
+    @Test
+    public void testFreezeEdgeCases() {
+        GraphCSR<Character> frozen = new GraphAdjacentyList<Character>().freeze();
+
+        assertEquals(0, frozen.vertexCount());
+        assertTrue(frozen.dfs(vertexA).isEmpty());
+        assertEquals(0, frozen.kruskalAL().getVertices().size());
+
+        GraphCSR<Character> snapshot = graph.freeze();
+        assertThrows(GraphException.class, () -> snapshot.addEdge(vertexA, vertexD, 1));
+        assertThrows(GraphException.class, () -> snapshot.removeVertex(vertexA));
+    }
+
+    @Test
+    public void testFreezeInteresting() {
+        GraphAdjacentyMatriz<Character> matrix = new GraphAdjacentyMatriz<>();
+        for (Vertex<Character> vertex : graph.getVertices()) {
+            matrix.addVertex(vertex);
+        }
+        matrix.addEdge(vertexA, vertexB, 1);
+        matrix.addEdge(vertexA, vertexC, 5);
+        matrix.addEdge(vertexB, vertexD, 2);
+        matrix.addEdge(vertexC, vertexD, 1);
+
+        GraphCSR<Character> fromList = graph.freeze();
+        GraphCSR<Character> fromMatrix = matrix.freeze();
+
+        assertArrayEquals(graph.floydWarshall(), fromList.floydWarshall());
+        assertArrayEquals(fromList.floydWarshall(), fromMatrix.floydWarshall());
+
+        ArrayList<Vertex<Character>> path = fromMatrix.dijkstra(vertexA, vertexC);
+        assertEquals(4, path.size()); // C <- D <- B <- A
+        assertEquals(vertexA, path.get(path.size() - 1));
+
+        assertEquals(3, fromList.primAL().getEdges().size());
+        assertEquals(3, fromMatrix.kruskalAL().getEdges().size());
+    }
+
+    @Test
+    public void testAllPairsShortestPaths() {
+        // Cuadrícula de 20x20: es dispersa, así que se calcula con un Dijkstra por vértice
+        GraphAdjacentyList<Integer> grid = new GraphAdjacentyList<>();
+        ArrayList<Vertex<Integer>> cells = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            cells.add(new Vertex<>(i));
+            grid.addVertex(cells.get(i));
+        }
+        for (int i = 0; i < 400; i++) {
+            if (i % 20 < 19) {
+                grid.addEdge(cells.get(i), cells.get(i + 1), 1 + i % 3);
+            }
+            if (i + 20 < 400) {
+                grid.addEdge(cells.get(i), cells.get(i + 20), 2);
+            }
+        }
+
+        assertArrayEquals(grid.floydWarshall(1), grid.allPairsShortestPaths(1));
+        assertArrayEquals(grid.floydWarshall(1), grid.allPairsShortestPaths(4));
+        assertArrayEquals(graph.floydWarshall(), graph.allPairsShortestPaths(2));
+    }
+
+    @Test
+    public void testBoruvka() {
+        // Cuadrícula de 100x100 con pesos repetidos: las rondas se reparten en varios hilos
+        GraphAdjacentyList<Integer> grid = new GraphAdjacentyList<>();
+        ArrayList<Vertex<Integer>> cells = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            cells.add(new Vertex<>(i));
+            grid.addVertex(cells.get(i));
+        }
+        for (int i = 0; i < 10000; i++) {
+            if (i % 100 < 99) {
+                grid.addEdge(cells.get(i), cells.get(i + 1), 1 + i * 7 % 5);
+            }
+            if (i + 100 < 10000) {
+                grid.addEdge(cells.get(i), cells.get(i + 100), 1 + i * 3 % 4);
+            }
+        }
+
+        int expected = totalWeight(grid.kruskalAL());
+        GraphAdjacentyList<Integer> serial = grid.boruvkaAL(1);
+        GraphAdjacentyList<Integer> parallel = grid.boruvkaAL(4);
+
+        assertEquals(9999, serial.freeze().edgeCount());
+        assertEquals(9999, parallel.freeze().edgeCount());
+        assertEquals(expected, totalWeight(serial));
+        assertEquals(expected, totalWeight(parallel));
+
+        // A-B (1), C-D (1) y B-D (2)
+        GraphAdjacentyMatriz<Character> tree = graph.boruvkaAM(2);
+        assertEquals(4, tree.getVertices().size());
+        assertEquals(3, tree.freeze().edgeCount());
+        assertEquals(4, totalWeight(graph.boruvkaAL(2)));
+    }
+
+    private <T> int totalWeight(GraphAdjacentyList<T> tree) {
+        int total = 0;
+        for (Edge<T> edge : tree.getEdges()) {
+            total += edge.getWeight();
+        }
+        return total;
+    }
+}
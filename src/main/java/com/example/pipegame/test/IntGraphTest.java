@@ -0,0 +1,70 @@
+package com.example.pipegame.test;
+
+import com.example.exception.GraphException;
+import com.example.pipegame.model.Direction;
+import com.example.pipegame.model.IntGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntGraphTest {
+
+    private IntGraph graph;
+
+    @BeforeEach
+    public void setUp() {
+        graph = new IntGraph(3, 3);
+        for (int id = 0; id < graph.size(); id++) {
+            graph.addVertex(id);
+        }
+    }
+
+    @Test
+    public void testAddEdgeStandard() {
+        graph.addEdge(graph.id(0, 0), graph.id(0, 1), 4);
+
+        assertEquals(4, graph.weight(0, 1));
+        assertEquals(1, graph.neighbor(0, Direction.RIGHT));
+        assertEquals(0, graph.neighbor(1, Direction.LEFT));
+        assertEquals(IntGraph.NO_VERTEX, graph.neighbor(0, Direction.DOWN));
+    }
+
+    @Test
+    public void testAddEdgeEdgeCases() {
+        // Celdas que no son vecinas y celdas fuera de la cuadrícula
+        assertThrows(GraphException.class, () -> graph.addEdge(0, 4, 1));
+        assertThrows(GraphException.class, () -> graph.addEdge(2, 3, 1));
+        assertThrows(GraphException.class, () -> graph.id(3, 0));
+
+        graph.removeVertex(4);
+        assertThrows(GraphException.class, () -> graph.addEdge(1, 4, 1));
+        assertEquals(8, graph.vertexCount());
+    }
+
+    @Test
+    public void testBfsAndDijkstraInteresting() {
+        // 0 - 1 - 2
+        // |       |
+        // 3       5
+        // |       |
+        // 6 - 7 - 8
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 5, 1);
+        graph.addEdge(5, 8, 1);
+        graph.addEdge(0, 3, 5);
+        graph.addEdge(3, 6, 5);
+        graph.addEdge(6, 7, 1);
+        graph.addEdge(7, 8, 1);
+
+        int[] predecessor = new int[graph.size()];
+        int[] order = graph.bfs(0, predecessor);
+        assertEquals(8, order.length); // La celda 4 no tiene aristas
+        assertEquals(0, order[0]);
+        assertEquals(IntGraph.NO_VERTEX, predecessor[4]);
+
+        assertArrayEquals(new int[]{6, 7, 8, 5, 2, 1, 0}, graph.dijkstra(0, 6));
+        assertArrayEquals(new int[]{4}, graph.dijkstra(0, 4));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.pipegame.test;
+
+import com.example.exception.GraphException;
+import com.example.pipegame.model.Direction;
+import com.example.pipegame.model.PipeType;
+import com.example.pipegame.model.WaterFlow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WaterFlowTest {
+
+    private WaterFlow flow;
+
+    @BeforeEach
+    public void setUp() {
+        flow = new WaterFlow(3, 3, 0, 0);
+    }
+
+    @Test
+    public void testSetPipeStandard() {
+        // Camino (0,0) -> (0,1) -> (0,2) -> (1,2)
+        flow.setPipe(0, 0, PipeType.HORIZONTAL);
+        flow.setPipe(0, 1, PipeType.HORIZONTAL);
+        flow.setPipe(0, 2, PipeType.ELBOW_DOWN_LEFT);
+        flow.setPipe(1, 2, PipeType.VERTICAL);
+
+        assertTrue(flow.isWet(1, 2));
+        assertEquals(4, flow.wetCount());
+        // Un tubo sin aberturas enfrentadas no recibe agua
+        flow.setPipe(1, 1, PipeType.HORIZONTAL);
+        assertFalse(flow.isWet(1, 1));
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        flow.setPipe(0, 0, PipeType.HORIZONTAL);
+        flow.setPipe(0, 1, PipeType.HORIZONTAL);
+        flow.setPipe(0, 2, PipeType.ELBOW_DOWN_LEFT);
+        flow.setPipe(1, 2, PipeType.VERTICAL);
+
+        // Girar el tubo del medio seca todo lo que venía después
+        flow.setPipe(0, 1, PipeType.VERTICAL);
+        assertFalse(flow.isWet(0, 2));
+        assertFalse(flow.isWet(1, 2));
+        assertEquals(1, flow.wetCount());
+
+        // Volver a ponerlo moja de nuevo el resto del camino
+        flow.setPipe(0, 1, PipeType.HORIZONTAL);
+        assertTrue(flow.isWet(1, 2));
+
+        flow.setPipe(0, 0, null);
+        assertEquals(0, flow.wetCount());
+        flow.clear();
+        assertFalse(flow.isWet(0, 1));
+    }
+
+    @Test
+    public void testOpenEnds() {
+        assertTrue(PipeType.HORIZONTAL.connectsTo(PipeType.ELBOW_UP_LEFT, Direction.RIGHT));
+        assertFalse(PipeType.HORIZONTAL.connectsTo(PipeType.ELBOW_UP_RIGHT, Direction.RIGHT));
+        assertFalse(PipeType.VERTICAL.connectsTo(null, Direction.DOWN));
+
+        // Camino (0,0) -> (0,1) -> (1,1): solo quedan abiertas la entrada y la salida
+        flow.setPipe(0, 0, PipeType.HORIZONTAL);
+        flow.setPipe(0, 1, PipeType.ELBOW_DOWN_LEFT);
+        flow.setPipe(1, 1, PipeType.VERTICAL);
+        assertEquals(2, flow.openEnds());
+
+        // Un tubo suelto suma sus dos extremos
+        flow.setPipe(2, 2, PipeType.HORIZONTAL);
+        assertEquals(4, flow.openEnds());
+        flow.clear();
+        assertEquals(0, flow.openEnds());
+    }
+
+    @Test
+    public void testEdgeCases() {
+        // Celdas fuera del tablero
+        assertThrows(GraphException.class, () -> flow.setPipe(3, 0, PipeType.VERTICAL));
+        assertThrows(GraphException.class, () -> flow.isWet(0, -1));
+        assertThrows(GraphException.class, () -> new WaterFlow(0, 3, 0, 0));
+        assertEquals(0, flow.wetCount());
+    }
+}